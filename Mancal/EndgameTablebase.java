@@ -0,0 +1,361 @@
+/**
+ * Exact values for every Mancala position with only a few stones left in
+ * the pits.
+ *
+ * What happens for the rest of a game depends only on the stones in the
+ * pits and whose turn it is, not on the score buckets. So the table stores,
+ * for every way of spreading at most maxStones stones over the pits, how
+ * many more stones bottom will end up with than top under perfect play.
+ * Adding the current difference of the score buckets gives the exact final
+ * net score.
+ *
+ * Positions are numbered by the number of stones in the pits and then by
+ * their rank among all ways of spreading that many stones, so finding an
+ * entry takes one pass over the pits and no search. Each entry is one byte.
+ * The table is saved to a file and opened again with a memory map.
+ *
+ * Stones never go back from a score bucket into a pit, and a move that puts
+ * no stone in a bucket only moves the mover's stones toward their bucket,
+ * so positions never repeat. The table is built level by level, fewest
+ * stones first, with a memoized search that splits each level between
+ * threads.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+public class EndgameTablebase {
+
+	// returned by probe for positions that are not in the table
+	public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	// marks entries that have not been solved yet while building
+	private static final byte UNKNOWN = Byte.MIN_VALUE;
+
+	private static final int FILE_MAGIC = 0x4D454742;
+	private static final int HEADER_BYTES = 16;
+
+	final int boardLength;
+	final int maxStones;
+	final int bottomScore, topScore;
+	// the board locations of the pits, in the order they are ranked
+	final int[] pitLocations;
+	// ways[q][r] is the number of ways to put r stones into q pits
+	final long[][] ways;
+	// below[(q * (maxStones + 1) + r) * stride + c] is the number of ways with
+	// fewer than c stones in a pit when r stones are left for it and the q
+	// pits after it, flattened so a probe follows no pointers
+	final long[] below;
+	final int stride;
+	// the first rank of each level
+	final long[] levelOffset;
+	// the number of entries, two (one per turn) for each spread of stones
+	final long size;
+
+	// the values, in memory while building and memory mapped after open
+	private ByteBuffer data;
+
+	private EndgameTablebase(int boardLength, int maxStones) {
+		if (maxStones < 0 || maxStones > 127) {
+			throw new IllegalArgumentException("maxStones must be between 0 and 127: " + maxStones);
+		}
+		this.boardLength = boardLength;
+		this.maxStones = maxStones;
+		bottomScore = boardLength / 2 - 1;
+		topScore = boardLength - 1;
+		int pits = boardLength - 2;
+		pitLocations = new int[pits];
+		for (int i = 0, loc = 0; loc < topScore; ++loc) {
+			if (loc != bottomScore) {
+				pitLocations[i++] = loc;
+			}
+		}
+		ways = new long[pits + 1][maxStones + 1];
+		ways[0][0] = 1;
+		for (int q = 1; q <= pits; ++q) {
+			for (int r = 0; r <= maxStones; ++r) {
+				ways[q][r] = (r > 0 ? ways[q][r - 1] : 0) + ways[q - 1][r];
+			}
+		}
+		stride = maxStones + 2;
+		below = new long[pits * (maxStones + 1) * stride];
+		for (int q = 0; q < pits; ++q) {
+			for (int r = 0; r <= maxStones; ++r) {
+				int row = (q * (maxStones + 1) + r) * stride;
+				for (int c = 1; c <= r + 1; ++c) {
+					below[row + c] = below[row + c - 1] + ways[q][r - c + 1];
+				}
+			}
+		}
+		levelOffset = new long[maxStones + 2];
+		for (int s = 0; s <= maxStones; ++s) {
+			levelOffset[s + 1] = levelOffset[s] + ways[pits][s];
+		}
+		size = levelOffset[maxStones + 1] * 2;
+		if (size > Integer.MAX_VALUE - HEADER_BYTES) {
+			throw new IllegalArgumentException("table too large: " + size + " entries");
+		}
+	}
+
+	/**
+	 * Solve every position with at most maxStones stones in the pits.
+	 *
+	 * @boardSize the number of holes on one side, as in GameState(boardSize, startingPieces)
+	 */
+	public static EndgameTablebase build(int boardSize, int maxStones, int threads) throws InterruptedException {
+		EndgameTablebase tb = new EndgameTablebase(boardSize * 2, maxStones);
+		byte[] values = new byte[(int) tb.size];
+		java.util.Arrays.fill(values, UNKNOWN);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			for (int s = 0; s <= maxStones; ++s) {
+				long first = tb.levelOffset[s] * 2;
+				long end = tb.levelOffset[s + 1] * 2;
+				List<Future<?>> running = new ArrayList<>();
+				for (int t = 0; t < threads; ++t) {
+					int worker = t;
+					int level = s;
+					running.add(pool.submit(() -> {
+						PackedGameState state = new PackedGameState(
+								new GameState(new int[tb.boardLength], true, maxStones));
+						for (long index = first + worker; index < end; index += threads) {
+							if (values[(int) index] == UNKNOWN) {
+								tb.unrank(index, level, state);
+								tb.solve(state, values);
+							}
+						}
+					}));
+				}
+				for (Future<?> f : running) {
+					f.get();
+				}
+			}
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		tb.data = ByteBuffer.wrap(values);
+		return tb;
+	}
+
+	/**
+	 * The value of the pits of state for bottom, solving and remembering
+	 * every position below it that is not known yet.
+	 */
+	private int solve(PackedGameState state, byte[] values) {
+		int index = (int) index(state);
+		if (values[index] != UNKNOWN) {
+			return values[index];
+		}
+		int best;
+		if (state.isGameOver()) {
+			best = pitDifference(state);
+		} else {
+			boolean bottomTurn = state.getTurn();
+			best = bottomTurn ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+			int before = storeDifference(state);
+			for (long legal = state.getLegalMoveMask(); legal != 0; legal &= legal - 1) {
+				state.make(Long.numberOfTrailingZeros(legal));
+				int value = storeDifference(state) - before + solve(state, values);
+				state.unmake();
+				best = bottomTurn ? Math.max(best, value) : Math.min(best, value);
+			}
+		}
+		values[index] = (byte) best;
+		return best;
+	}
+
+	private int storeDifference(PackedGameState s) {
+		return s.getCount(bottomScore) - s.getCount(topScore);
+	}
+
+	// stones left to bottom minus stones left to top when the game ends now
+	private int pitDifference(PackedGameState s) {
+		int sum = 0;
+		for (int loc : pitLocations) {
+			sum += loc < bottomScore ? s.getCount(loc) : -s.getCount(loc);
+		}
+		return sum;
+	}
+
+	/**
+	 * The entry for the pits of s, or -1 if they hold more than maxStones.
+	 */
+	long index(PackedGameState s) {
+		int stones = 0;
+		for (int loc : pitLocations) {
+			stones += s.getCount(loc);
+		}
+		if (stones > maxStones) {
+			return -1;
+		}
+		long rank = 0;
+		int remaining = stones;
+		for (int i = 0, q = pitLocations.length - 1; q > 0; ++i, --q) {
+			int c = s.getCount(pitLocations[i]);
+			rank += below[(q * (maxStones + 1) + remaining) * stride + c];
+			remaining -= c;
+		}
+		return (levelOffset[stones] + rank) * 2 + (s.getTurn() ? 0 : 1);
+	}
+
+	// the same as index(PackedGameState) for a GameState
+	long index(GameState g) {
+		int stones = 0;
+		for (int loc : pitLocations) {
+			stones += g.board[loc];
+		}
+		if (stones > maxStones) {
+			return -1;
+		}
+		long rank = 0;
+		int remaining = stones;
+		for (int i = 0, q = pitLocations.length - 1; q > 0; ++i, --q) {
+			int c = g.board[pitLocations[i]];
+			rank += below[(q * (maxStones + 1) + remaining) * stride + c];
+			remaining -= c;
+		}
+		return (levelOffset[stones] + rank) * 2 + (g.isBottomTurn ? 0 : 1);
+	}
+
+	// set the pits of s to the position at index, which has stones in the pits, and empty the stores
+	private void unrank(long index, int stones, PackedGameState s) {
+		s.setTurn((index & 1) == 0);
+		long rank = index / 2 - levelOffset[stones];
+		int remaining = stones;
+		for (int i = 0, q = pitLocations.length - 1; q > 0; ++i, --q) {
+			int row = (q * (maxStones + 1) + remaining) * stride;
+			int c = 0;
+			while (below[row + c + 1] <= rank) {
+				c++;
+			}
+			rank -= below[row + c];
+			remaining -= c;
+			s.setCount(pitLocations[i], c);
+		}
+		s.setCount(pitLocations[pitLocations.length - 1], remaining);
+		s.setCount(bottomScore, 0);
+		s.setCount(topScore, 0);
+	}
+
+	/**
+	 * The exact final net score of s with perfect play, >0 means bottom wins.
+	 *
+	 * @return the score, or NOT_FOUND if s has too many stones in play or a different geometry
+	 */
+	public int probe(PackedGameState s) {
+		if (s.getBoardLength() != boardLength) {
+			return NOT_FOUND;
+		}
+		long index = index(s);
+		if (index < 0) {
+			return NOT_FOUND;
+		}
+		return storeDifference(s) + data.get((int) index);
+	}
+
+	// the same as probe(PackedGameState) for a GameState
+	public int probe(GameState g) {
+		if (g.board.length != boardLength) {
+			return NOT_FOUND;
+		}
+		long index = index(g);
+		if (index < 0) {
+			return NOT_FOUND;
+		}
+		return g.board[bottomScore] - g.board[topScore] + data.get((int) index);
+	}
+
+	public int getMaxStones() {
+		return maxStones;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	// write the table so open can map it
+	public void save(String fileName) throws IOException {
+		try (FileChannel out = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(FILE_MAGIC).putInt(boardLength).putInt(maxStones).putInt((int) size).flip();
+			while (header.hasRemaining()) {
+				out.write(header);
+			}
+			ByteBuffer values = data.duplicate();
+			values.clear();
+			while (values.hasRemaining()) {
+				out.write(values);
+			}
+		}
+	}
+
+	// memory map a table written by save
+	public static EndgameTablebase open(String fileName) throws IOException {
+		try (FileChannel in = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			if (in.read(header, 0) < HEADER_BYTES || header.flip().getInt() != FILE_MAGIC) {
+				throw new IOException(fileName + " is not an endgame tablebase");
+			}
+			EndgameTablebase tb = new EndgameTablebase(header.getInt(), header.getInt());
+			if (header.getInt() != tb.size) {
+				throw new IOException(fileName + " has the wrong size");
+			}
+			MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, tb.size);
+			tb.data = map;
+			return tb;
+		}
+	}
+
+	/**
+	 * Build a table, save it, map it back and time probes of random positions.
+	 *
+	 * args: [boardSize] [maxStones] [file]
+	 */
+	public static void main(String[] args) throws Exception {
+		int boardSize = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+		int maxStones = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+		String fileName = args.length > 2 ? args[2] : "endgame-" + boardSize + "-" + maxStones + ".tb";
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		long start = System.nanoTime();
+		EndgameTablebase built = build(boardSize, maxStones, threads);
+		System.out.println("built " + built.size + " entries with " + threads + " threads in "
+				+ (System.nanoTime() - start) / 1000000 + " ms");
+		built.save(fileName);
+		EndgameTablebase tb = open(fileName);
+
+		// random positions with at most maxStones in the pits
+		Random random = new Random(364);
+		int count = 1 << 16;
+		PackedGameState[] positions = new PackedGameState[count];
+		for (int i = 0; i < count; ++i) {
+			int[] board = new int[boardSize * 2];
+			int stones = random.nextInt(maxStones + 1);
+			for (int k = 0; k < stones; ++k) {
+				board[tb.pitLocations[random.nextInt(tb.pitLocations.length)]]++;
+			}
+			positions[i] = new PackedGameState(new GameState(board, random.nextBoolean(), maxStones));
+		}
+		for (int round = 0; round < 5; ++round) {
+			long sum = 0;
+			long begin = System.nanoTime();
+			for (int i = 0; i < 10000000; ++i) {
+				sum += tb.probe(positions[i & (count - 1)]);
+			}
+			long ns = System.nanoTime() - begin;
+			System.out.println(String.format("%.1f", ns / 1e7) + " ns per probe (" + sum + ")");
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/**
+ * A static evaluation of Mancala positions for searches to use at their
+ * leaves.
+ *
+ * The board is laid out as in GameState.board. Values are from bottom's
+ * point of view, positive when bottom is ahead, like currentScore().
+ *
+ * @version Oct 17, 2026
+ */
+public interface Evaluator {
+
+	// the difference of the stores, what currentScore() returns
+	Evaluator SCORE = (board, bottomTurn) -> board[board.length / 2 - 1] - board[board.length - 1];
+
+	// searches round evaluations to multiples of STEP and make their null windows STEP wide.
+	// TranspositionTable keeps values as floats, which hold these multiples exactly below 2^16
+	double STEP = 1.0 / 256;
+
+	double evaluate(int[] board, boolean bottomTurn);
+
+	// v rounded to the nearest multiple of STEP
+	static double quantize(double v) {
+		return Math.rint(v / STEP) * STEP;
+	}
+
+	default double evaluate(GameState g) {
+		return evaluate(g.board, g.isBottomTurn);
+	}
+}
@@ -0,0 +1,242 @@
+/**
+ * Fits the weights of a LinearEvaluator to self-play games.
+ *
+ * Every position of every game in the corpus is a training example: its
+ * features, and the final net score the game ended with. The weights are
+ * fitted by full-batch gradient descent (Adam) on the squared error
+ * between the evaluation and that score. Each epoch the positions are
+ * split between threads, each thread sums the gradient of its share, and
+ * the sums are added up. One game in ten is kept out of training to test
+ * the fit.
+ *
+ * The corpus is a GameRecordWriter file. generate() writes one by
+ * self-play between fixed depth IterativeDeepeningPlayers that open with
+ * a few random moves so the games differ.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class EvaluatorTuner {
+
+	// the first moves of a self-play game are random
+	static final int RANDOM_PLIES = 6;
+
+	// Adam step size and decay rates
+	static final double LEARNING_RATE = 0.01;
+	static final double BETA1 = 0.9;
+	static final double BETA2 = 0.999;
+
+	// positions as features, with the final net score of their game
+	static class Examples {
+		final double[][] x;
+		final double[] y;
+
+		Examples(List<double[]> x, List<Double> y) {
+			this.x = x.toArray(new double[0][]);
+			this.y = new double[y.size()];
+			for (int i = 0; i < this.y.length; ++i) {
+				this.y[i] = y.get(i);
+			}
+		}
+	}
+
+	/**
+	 * Play games between two depth limited searches on all threads and
+	 * append them to fileName.
+	 */
+	public static void generate(int games, int depth, int threads, String fileName)
+			throws IOException, InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		// each thread keeps one search, with its own table
+		ThreadLocal<IterativeDeepeningPlayer> players = ThreadLocal.withInitial(() -> {
+			IterativeDeepeningPlayer p = new IterativeDeepeningPlayer();
+			p.maxDepth = depth;
+			return p;
+		});
+		try (GameRecordWriter out = new GameRecordWriter(fileName)) {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < games; ++i) {
+				long seed = i;
+				tasks.add(() -> {
+					selfPlay(players.get(), new SplittableRandom(seed), out);
+					return null;
+				});
+			}
+			for (Future<Void> f : pool.invokeAll(tasks)) {
+				try {
+					f.get();
+				} catch (ExecutionException e) {
+					throw new IOException("self-play failed", e.getCause());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	// play one game of the standard board and record it in out
+	private static void selfPlay(IterativeDeepeningPlayer player, SplittableRandom random, GameRecordWriter out)
+			throws IOException {
+		GameState g = new GameState(7, 4);
+		int[] moves = new int[64];
+		int[] legal = new int[g.board.length];
+		int ply = 0;
+		for (; !g.isGameOver(); ++ply) {
+			Move m;
+			if (ply < RANDOM_PLIES) {
+				m = Move.of(legal[random.nextInt(g.getLegalMoves(legal))]);
+			} else {
+				m = player.getMove(g, Long.MAX_VALUE / 2);
+			}
+			if (ply == moves.length) {
+				moves = Arrays.copyOf(moves, ply * 2);
+			}
+			moves[ply] = m.location;
+			g = g.makeMove(m);
+		}
+		out.add(7, 4, g.getFinalNetScore(), moves, ply);
+	}
+
+	/**
+	 * The positions of the games in fileName, as features and targets.
+	 * Games whose index is a multiple of 10 go in the test set.
+	 *
+	 * @return {training examples, test examples}
+	 */
+	static Examples[] read(String fileName) throws IOException {
+		List<double[]> trainX = new ArrayList<>();
+		List<double[]> testX = new ArrayList<>();
+		List<Double> trainY = new ArrayList<>();
+		List<Double> testY = new ArrayList<>();
+		try (GameRecordReader in = new GameRecordReader(fileName)) {
+			for (int game = 0; in.next(); ++game) {
+				GameState g = new GameState(in.getBoardSize(), in.getStartingPieces());
+				double result = in.getResult();
+				boolean test = game % 10 == 0;
+				for (int i = 0; i < in.getMoveCount() && !g.isGameOver(); ++i) {
+					(test ? testX : trainX).add(LinearEvaluator.features(g.board, g.isBottomTurn));
+					(test ? testY : trainY).add(result);
+					g = g.makeMove(Move.of(in.getMove(i)));
+				}
+			}
+		}
+		return new Examples[] { new Examples(trainX, trainY), new Examples(testX, testY) };
+	}
+
+	// mean squared error of weights on the examples
+	static double meanSquaredError(double[] weights, Examples examples) {
+		double[][] x = examples.x;
+		double[] y = examples.y;
+		double sum = 0;
+		for (int i = 0; i < x.length; ++i) {
+			double error = dot(weights, x[i]) - y[i];
+			sum += error * error;
+		}
+		return x.length == 0 ? 0 : sum / x.length;
+	}
+
+	private static double dot(double[] w, double[] f) {
+		double sum = 0;
+		for (int k = 0; k < w.length; ++k) {
+			sum += w[k] * f[k];
+		}
+		return sum;
+	}
+
+	/**
+	 * Fit weights to the examples, starting from start.
+	 */
+	static double[] tune(double[] start, Examples examples, int epochs, int threads) throws InterruptedException {
+		double[][] x = examples.x;
+		double[] y = examples.y;
+		int n = LinearEvaluator.FEATURES;
+		double[] w = start.clone();
+		double[] m = new double[n];
+		double[] v = new double[n];
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			int chunk = (x.length + threads - 1) / threads;
+			for (int epoch = 1; epoch <= epochs; ++epoch) {
+				double[] current = w.clone();
+				List<Callable<double[]>> parts = new ArrayList<>();
+				for (int from = 0; from < x.length; from += chunk) {
+					int begin = from;
+					int end = Math.min(x.length, from + chunk);
+					parts.add(() -> {
+						double[] g = new double[n];
+						for (int i = begin; i < end; ++i) {
+							double error = dot(current, x[i]) - y[i];
+							for (int k = 0; k < n; ++k) {
+								g[k] += error * x[i][k];
+							}
+						}
+						return g;
+					});
+				}
+				double[] gradient = new double[n];
+				for (Future<double[]> f : pool.invokeAll(parts)) {
+					double[] g;
+					try {
+						g = f.get();
+					} catch (ExecutionException e) {
+						throw new IllegalStateException(e.getCause());
+					}
+					for (int k = 0; k < n; ++k) {
+						gradient[k] += 2 * g[k] / x.length;
+					}
+				}
+				for (int k = 0; k < n; ++k) {
+					m[k] = BETA1 * m[k] + (1 - BETA1) * gradient[k];
+					v[k] = BETA2 * v[k] + (1 - BETA2) * gradient[k] * gradient[k];
+					double mHat = m[k] / (1 - Math.pow(BETA1, epoch));
+					double vHat = v[k] / (1 - Math.pow(BETA2, epoch));
+					w[k] -= LEARNING_RATE * mHat / (Math.sqrt(vHat) + 1e-8);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return w;
+	}
+
+	/**
+	 * Make a corpus if there is none, fit the weights and save them.
+	 *
+	 * args: [games] [depth] [corpus file] [weights file] [epochs]
+	 */
+	public static void main(String[] args) throws Exception {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+		String corpus = args.length > 2 ? args[2] : "selfplay.games";
+		String weightsFile = args.length > 3 ? args[3] : "evaluator.weights";
+		int epochs = args.length > 4 ? Integer.parseInt(args[4]) : 2000;
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		if (!new File(corpus).exists()) {
+			long start = System.nanoTime();
+			generate(games, depth, threads, corpus);
+			System.out.println(games + " self-play games at depth " + depth + " in "
+					+ (System.nanoTime() - start) / 1000000 + " ms");
+		}
+		Examples[] data = read(corpus);
+		Examples train = data[0];
+		Examples test = data[1];
+		System.out.println(train.x.length + " training and " + test.x.length + " test positions");
+
+		double[] start = new LinearEvaluator().getWeights();
+		System.out.println("currentScore: train MSE " + String.format("%.3f", meanSquaredError(start, train))
+				+ ", test MSE " + String.format("%.3f", meanSquaredError(start, test)));
+		long begin = System.nanoTime();
+		double[] w = tune(start, train, epochs, threads);
+		System.out.println("tuned in " + (System.nanoTime() - begin) / 1000000 + " ms: train MSE "
+				+ String.format("%.3f", meanSquaredError(w, train)) + ", test MSE "
+				+ String.format("%.3f", meanSquaredError(w, test)));
+		LinearEvaluator tuned = new LinearEvaluator(w);
+		System.out.println(tuned);
+		tuned.save(weightsFile);
+	}
+}
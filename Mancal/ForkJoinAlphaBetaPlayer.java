@@ -0,0 +1,448 @@
+/**
+ * A MancalaPlayer that runs alpha-beta on a ForkJoinPool using the
+ * Young Brothers Wait idea.
+ *
+ * At every node far enough from the leaves the first (eldest) child is
+ * searched on its own. Only once it has returned, and has not caused a
+ * cutoff, are the younger brothers forked as parallel subtasks. A child
+ * that fails high marks its parent's Split as cut off, which stops its
+ * running brothers and everything below them. Near the leaves the search
+ * is an ordinary serial alpha-beta, since a task there costs more than it
+ * saves.
+ *
+ * Leaves are scored by the player's Evaluator, and positions the tablebase
+ * holds get their exact value, the same as in IterativeDeepeningPlayer.
+ *
+ * getMove runs iterative deepening until the deadline. The main method
+ * runs a fixed depth analysis of the opening moves instead.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ForkJoinAlphaBetaPlayer extends MancalaPlayer implements MiniMax {
+
+	// the clock is checked when a task's node count is a multiple of this (a power of 2)
+	static final int CHECK_INTERVAL = 1024;
+
+	// nodes with at most this much depth left are searched serially
+	int serialDepth = 4;
+
+	// getMove stops after this depth, mostly for fixed depth analysis
+	int maxDepth = IterativeDeepeningPlayer.MAX_PLY;
+
+	final ForkJoinPool pool;
+
+	// when the current search must stop, and whether it has
+	long stopTime;
+	volatile boolean aborted;
+
+	// statistics for the last move, added to by every task
+	final LongAdder nodesGenerated = new LongAdder();
+	final LongAdder staticEvaluations = new LongAdder();
+	final LongAdder nodesExpanded = new LongAdder();
+	final LongAdder childrenGenerated = new LongAdder();
+	final LongAdder childrenExplored = new LongAdder();
+	final LongAdder tablebaseHits = new LongAdder();
+	int completedDepth;
+	double bestScore;
+
+	public ForkJoinAlphaBetaPlayer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public ForkJoinAlphaBetaPlayer(int threads) {
+		pool = new ForkJoinPool(threads);
+		table = new TranspositionTable(22, TranspositionTable.Replacement.DEPTH_AND_AGE);
+	}
+
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+	@Override
+	public Move getMove(GameState g, long deadline) {
+		TimeManager timeManager = getTimeManager();
+		Move booked = bookMove(g);
+		if (booked != null) {
+			return booked;
+		}
+		aborted = false;
+		nodesGenerated.reset();
+		staticEvaluations.reset();
+		nodesExpanded.reset();
+		childrenGenerated.reset();
+		childrenExplored.reset();
+		tablebaseHits.reset();
+		completedDepth = 0;
+		if (table != null) {
+			table.newSearch();
+			table.resetStatistics();
+			table.hash(g);
+		}
+		PackedGameState root = new PackedGameState(g);
+		long legal = root.getLegalMoveMask();
+		int bestMove = Long.numberOfTrailingZeros(legal);
+		timeManager.startMove(Long.bitCount(legal), deadline);
+		stopTime = timeManager.getHardStop();
+		if (timeManager.isForced()) {
+			timeManager.endMove();
+			return Move.of(bestMove);
+		}
+		for (int depth = 1; depth <= maxDepth; ++depth) {
+			SearchTask task = new SearchTask(new PackedGameState(root), depth, Double.NEGATIVE_INFINITY,
+					Double.POSITIVE_INFINITY, null, false);
+			double score = pool.invoke(task);
+			if (aborted) {
+				break;
+			}
+			bestMove = task.bestMove;
+			bestScore = score;
+			completedDepth = depth;
+			if (verbose) {
+				System.out.println(this + " depth " + depth + " score " + score + " move " + bestMove + " nodes "
+						+ nodesGenerated.sum());
+			}
+			if (!task.depthLimited || !timeManager.iterationDone(depth, score, bestMove)) {
+				break;
+			}
+		}
+		timeManager.endMove();
+		return Move.of(bestMove);
+	}
+
+	/**
+	 * The state shared by the tasks searching the children of one node.
+	 * Setting cutoff stops all of them.
+	 */
+	static class Split {
+		final Split parent;
+		volatile boolean cutoff;
+
+		Split(Split parent) {
+			this.parent = parent;
+		}
+
+		// true if this node or any node above it has been cut off
+		boolean isCut() {
+			for (Split s = this; s != null; s = s.parent) {
+				if (s.cutoff) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Searches one node. The value is negamax, for the player to move in state.
+	 */
+	class SearchTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+
+		final PackedGameState state;
+		final int depth;
+		final double alpha, beta;
+		// the node this is a child of, null at the root
+		final Split parent;
+		// when this child's value, as seen by the parent, reaches parentBeta the parent is cut off
+		final boolean sameSide;
+		double parentBeta = Double.POSITIVE_INFINITY;
+
+		int bestMove = -1;
+		boolean depthLimited;
+		// true if the task stopped early, so its value means nothing
+		boolean interrupted;
+		// counted locally then added to the shared totals when the task ends
+		long nodes, evaluations, expanded, generated, explored, tablebaseFound;
+		// the board handed to the evaluator, one per task since tasks run on different threads
+		private int[] evaluatorBoard;
+
+		SearchTask(PackedGameState state, int depth, double alpha, double beta, Split parent, boolean sameSide) {
+			this.state = state;
+			this.depth = depth;
+			this.alpha = alpha;
+			this.beta = beta;
+			this.parent = parent;
+			this.sameSide = sameSide;
+		}
+
+		@Override
+		protected Double compute() {
+			double value = depth <= serialDepth ? alphaBeta(depth, alpha, beta, 0)
+					: split(new Split(parent), alpha, beta);
+			nodesGenerated.add(nodes);
+			staticEvaluations.add(evaluations);
+			nodesExpanded.add(expanded);
+			childrenGenerated.add(generated);
+			childrenExplored.add(explored);
+			tablebaseHits.add(tablebaseFound);
+			// an interrupted task's 0 says nothing about the parent
+			if (!interrupted && parent != null && (sameSide ? value : -value) >= parentBeta) {
+				parent.cutoff = true;
+			}
+			return value;
+		}
+
+		// true if the search should stop
+		private boolean stopped() {
+			if ((nodes & (CHECK_INTERVAL - 1)) == 0 && System.currentTimeMillis() >= stopTime) {
+				aborted = true;
+			}
+			if (aborted || (parent != null && parent.isCut())) {
+				interrupted = true;
+			}
+			return interrupted;
+		}
+
+		/**
+		 * Search the first child here, then fork the rest.
+		 */
+		private double split(Split node, double alpha, double beta) {
+			if (stopped()) {
+				return 0;
+			}
+			boolean bottomTurn = state.getTurn();
+			if (state.isGameOver()) {
+				return bottomTurn ? state.getFinalNetScore() : -state.getFinalNetScore();
+			}
+			if (tablebase != null && parent != null) {
+				int exact = tablebase.probe(state);
+				if (exact != EndgameTablebase.NOT_FOUND) {
+					tablebaseFound++;
+					return bottomTurn ? exact : -exact;
+				}
+			}
+			int tableMove = -1;
+			long key = 0;
+			if (table != null) {
+				key = table.hash(state);
+				tableMove = TranspositionTable.move(table.probe(key));
+			}
+			int[] moves = new int[state.getBoardLength()];
+			int count = order(state.getLegalMoveMask(), tableMove, moves);
+			expanded++;
+			generated += count;
+			double originalAlpha = alpha;
+
+			// the eldest brother
+			int first = moves[0];
+			nodes++;
+			explored++;
+			state.make(first);
+			boolean same = state.getTurn() == bottomTurn;
+			SearchTask eldest = same ? new SearchTask(state, depth - 1, alpha, beta, node, true)
+					: new SearchTask(state, depth - 1, -beta, -alpha, node, false);
+			double best = eldest.invoke();
+			state.unmake();
+			if (!same) {
+				best = -best;
+			}
+			depthLimited |= eldest.depthLimited;
+			bestMove = first;
+			if (stopped()) {
+				return 0;
+			}
+			if (best > alpha) {
+				alpha = best;
+			}
+
+			// the younger brothers, in parallel
+			if (alpha < beta && count > 1) {
+				SearchTask[] brothers = new SearchTask[count - 1];
+				for (int i = 1; i < count; ++i) {
+					PackedGameState child = new PackedGameState(state);
+					child.make(moves[i]);
+					same = child.getTurn() == bottomTurn;
+					SearchTask t = same ? new SearchTask(child, depth - 1, alpha, beta, node, true)
+							: new SearchTask(child, depth - 1, -beta, -alpha, node, false);
+					t.parentBeta = beta;
+					brothers[i - 1] = t;
+				}
+				nodes += count - 1;
+				explored += count - 1;
+				invokeAll(brothers);
+				if (stopped()) {
+					return 0;
+				}
+				for (int i = 0; i < brothers.length; ++i) {
+					if (brothers[i].interrupted) {
+						continue;
+					}
+					double value = brothers[i].getRawResult();
+					if (!brothers[i].sameSide) {
+						value = -value;
+					}
+					depthLimited |= brothers[i].depthLimited;
+					if (value > best) {
+						best = value;
+						bestMove = moves[i + 1];
+					}
+				}
+			}
+			if (table != null) {
+				int bound = best <= originalAlpha ? TranspositionTable.UPPER
+						: best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+				table.store(key, depth, bound, best, bestMove);
+			}
+			return best;
+		}
+
+		/**
+		 * Serial negamax alpha-beta on state, used near the leaves.
+		 */
+		private double alphaBeta(int depth, double alpha, double beta, int ply) {
+			if (stopped()) {
+				return 0;
+			}
+			boolean bottomTurn = state.getTurn();
+			if (state.isGameOver()) {
+				return bottomTurn ? state.getFinalNetScore() : -state.getFinalNetScore();
+			}
+			if (tablebase != null && (ply > 0 || parent != null)) {
+				int exact = tablebase.probe(state);
+				if (exact != EndgameTablebase.NOT_FOUND) {
+					tablebaseFound++;
+					return bottomTurn ? exact : -exact;
+				}
+			}
+			if (depth == 0) {
+				depthLimited = true;
+				evaluations++;
+				double score = evaluate();
+				return bottomTurn ? score : -score;
+			}
+			long legal = state.getLegalMoveMask();
+			expanded++;
+			generated += Long.bitCount(legal);
+			double best = Double.NEGATIVE_INFINITY;
+			int move = -1;
+			while (legal != 0) {
+				int m = Long.numberOfTrailingZeros(legal);
+				legal &= legal - 1;
+				nodes++;
+				explored++;
+				state.make(m);
+				double value;
+				if (state.getTurn() == bottomTurn) {
+					value = alphaBeta(depth - 1, alpha, beta, ply + 1);
+				} else {
+					value = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+				}
+				state.unmake();
+				if (value > best) {
+					best = value;
+					move = m;
+					if (value > alpha) {
+						alpha = value;
+					}
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+			if (ply == 0) {
+				bestMove = move;
+			}
+			return best;
+		}
+
+		// the static evaluation of state, positive is good for bottom
+		private double evaluate() {
+			if (evaluator == null) {
+				return state.currentScore();
+			}
+			if (evaluatorBoard == null) {
+				evaluatorBoard = new int[state.getBoardLength()];
+			}
+			// on the grid the table stores exactly, see Evaluator.STEP
+			return Evaluator.quantize(evaluator.evaluate(state.copyBoard(evaluatorBoard), state.getTurn()));
+		}
+	}
+
+	// the table move first, then the others by location
+	static int order(long legal, int tableMove, int[] moves) {
+		int count = 0;
+		if (tableMove >= 0 && (legal & 1L << tableMove) != 0) {
+			moves[count++] = tableMove;
+			legal &= ~(1L << tableMove);
+		}
+		while (legal != 0) {
+			moves[count++] = Long.numberOfTrailingZeros(legal);
+			legal &= legal - 1;
+		}
+		return count;
+	}
+
+	@Override
+	public double staticEvaluator(GameState state) {
+		return evaluator == null ? state.currentScore() : Evaluator.quantize(evaluator.evaluate(state));
+	}
+
+	@Override
+	public int getNodesGenerated() {
+		return (int) nodesGenerated.sum();
+	}
+
+	@Override
+	public int getStaticEvaluations() {
+		return (int) staticEvaluations.sum();
+	}
+
+	@Override
+	public double getAveBranchingFactor() {
+		long expanded = nodesExpanded.sum();
+		return expanded == 0 ? 0 : (double) childrenGenerated.sum() / expanded;
+	}
+
+	@Override
+	public double getEffectiveBranchingFactor() {
+		long expanded = nodesExpanded.sum();
+		return expanded == 0 ? 0 : (double) childrenExplored.sum() / expanded;
+	}
+
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	// the number of positions whose exact value came from the tablebase in the last search
+	public int getTablebaseHits() {
+		return (int) tablebaseHits.sum();
+	}
+
+	public double getBestScore() {
+		return bestScore;
+	}
+
+	public String toString() {
+		return "ForkJoinAlphaBeta";
+	}
+
+	/**
+	 * Fixed depth analysis of every opening move of the standard game.
+	 *
+	 * args: [threads] [depth]
+	 */
+	public static void main(String[] args) {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		ForkJoinAlphaBetaPlayer p = new ForkJoinAlphaBetaPlayer(threads);
+		p.maxDepth = depth;
+		GameState start = new GameState(7, 4);
+		System.out.println("move\tscore\tnodes\tEBF\tms");
+		for (Move m : start.getLegalMoves()) {
+			GameState g = start.makeMove(m);
+			long begin = System.nanoTime();
+			p.getMove(g, Long.MAX_VALUE / 2);
+			long ms = (System.nanoTime() - begin) / 1000000;
+			// the score is for the player to move after m, turn it around for bottom
+			double score = g.isBottomTurn ? p.bestScore : -p.bestScore;
+			System.out.println(m + "\t" + score + "\t" + p.getNodesGenerated() + "\t"
+					+ String.format("%.2f", p.getEffectiveBranchingFactor()) + "\t" + ms);
+		}
+	}
+}
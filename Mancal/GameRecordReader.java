@@ -0,0 +1,129 @@
+/**
+ * Reads a file written by GameRecordWriter, one game at a time.
+ *
+ * The file is memory mapped and the reader is a cursor: next() moves to
+ * the next record, and the accessors read the current record straight out
+ * of the map. Nothing is allocated per record, so millions of games can be
+ * scanned cheaply. Large files are mapped a window at a time.
+ *
+ *     try (GameRecordReader in = new GameRecordReader("games.bin")) {
+ *         while (in.next()) {
+ *             ... in.getResult(), in.getMove(i) for i < in.getMoveCount() ...
+ *         }
+ *     }
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+public class GameRecordReader implements Closeable {
+
+	// the most of the file mapped at once
+	static final int WINDOW_BYTES = 1 << 30;
+
+	private final FileChannel channel;
+	private final long size;
+	private final String fileName;
+
+	// the mapped window and the file offset it starts at
+	private MappedByteBuffer map;
+	private long base;
+
+	// the current record's header and the offset of its first move in map, -1 before the first
+	private int boardSize;
+	private int startingPieces;
+	private int moveCount;
+	private int result;
+	private int moves = -1;
+
+	public GameRecordReader(String fileName) throws IOException {
+		this.fileName = fileName;
+		channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try {
+			size = channel.size();
+			map(0);
+			if (size < GameRecordWriter.MAGIC_BYTES || map.getInt() != GameRecordWriter.MAGIC) {
+				throw new IOException(fileName + " is not a game record file");
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	// map the window starting at offset
+	private void map(long offset) throws IOException {
+		base = offset;
+		map = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_BYTES, size - offset));
+	}
+
+	/**
+	 * Moves to the next record.
+	 *
+	 * @return false at the end of the file
+	 */
+	public boolean next() throws IOException {
+		int p = map.position();
+		if (map.remaining() < GameRecordWriter.HEADER_BYTES) {
+			if (base + p + GameRecordWriter.HEADER_BYTES > size) {
+				if (base + p < size) {
+					throw new EOFException(fileName + " ends in the middle of a record");
+				}
+				return false;
+			}
+			map(base + p);
+			p = 0;
+		}
+		int count = map.getShort(p + 2) & GameRecordWriter.MAX_MOVES;
+		if (map.remaining() < GameRecordWriter.HEADER_BYTES + count) {
+			if (base + p + GameRecordWriter.HEADER_BYTES + count > size) {
+				throw new EOFException(fileName + " ends in the middle of a record");
+			}
+			map(base + p);
+			p = 0;
+		}
+		boardSize = map.get(p) & 0xFF;
+		startingPieces = map.get(p + 1) & 0xFF;
+		moveCount = count;
+		result = map.getInt(p + 4);
+		moves = p + GameRecordWriter.HEADER_BYTES;
+		map.position(moves + count);
+		return true;
+	}
+
+	// pits per side in the current game
+	public int getBoardSize() {
+		return boardSize;
+	}
+
+	// starting stones per pit in the current game
+	public int getStartingPieces() {
+		return startingPieces;
+	}
+
+	// the final net score of the current game, >0 means bottom won
+	public int getResult() {
+		return result;
+	}
+
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	// the location played by the i-th move of the current game, from 0
+	public int getMove(int i) {
+		if (i < 0 || i >= moveCount) {
+			throw new IndexOutOfBoundsException("move " + i + " of " + moveCount);
+		}
+		return map.get(moves + i) & 0xFF;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * Appends finished games to a compact binary file.
+ *
+ * The file starts with a 4 byte magic number. Then comes one record per
+ * game: an 8 byte header and one byte per move.
+ * - 1 byte: pits per side
+ * - 1 byte: starting stones per pit
+ * - 2 bytes: number of moves, unsigned
+ * - 4 bytes: final net score, >0 means bottom won
+ * - then each move's location, unsigned
+ * The moves are played from the starting position with bottom to move
+ * first, so a record is enough to replay the whole game. All numbers are
+ * big endian. A standard game takes about 50 bytes.
+ *
+ * add() copies the record into a buffer and returns. When the buffer is
+ * full it is handed to a background thread that writes it with a
+ * FileChannel, and play continues in a second buffer. add() only waits if
+ * both buffers are waiting on the disk. One writer can be shared by games
+ * on many threads. A write that fails is reported by the next add or close.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+public class GameRecordWriter implements Closeable {
+
+	static final int MAGIC = 0x4D47524D;
+	static final int MAGIC_BYTES = 4;
+	// size, stones, moves, result
+	static final int HEADER_BYTES = 8;
+	static final int MAX_MOVES = 0xFFFF;
+
+	static final int BUFFER_BYTES = 1 << 20;
+
+	private final FileChannel channel;
+
+	// buffers that are not being written, current is being filled
+	private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(2);
+	private ByteBuffer current;
+
+	// writes full buffers in the order they were handed over
+	private final ExecutorService disk = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "game-record-writer");
+		t.setDaemon(true);
+		return t;
+	});
+
+	// the first failed write, reported to the caller of add or close
+	private volatile IOException failure;
+
+	private boolean closed;
+
+	private long games;
+
+	/**
+	 * Opens fileName for appending, creating it with its magic number if
+	 * it does not exist.
+	 */
+	public GameRecordWriter(String fileName) throws IOException {
+		Path path = Paths.get(fileName);
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.READ);
+		try {
+			if (channel.size() == 0) {
+				ByteBuffer magic = ByteBuffer.allocate(MAGIC_BYTES).putInt(MAGIC);
+				magic.flip();
+				channel.write(magic, 0);
+			} else {
+				ByteBuffer magic = ByteBuffer.allocate(MAGIC_BYTES);
+				channel.read(magic, 0);
+				if (magic.flip().remaining() < MAGIC_BYTES || magic.getInt() != MAGIC) {
+					throw new IOException(fileName + " is not a game record file");
+				}
+			}
+			channel.position(channel.size());
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		current = ByteBuffer.allocateDirect(BUFFER_BYTES);
+		free.add(ByteBuffer.allocateDirect(BUFFER_BYTES));
+	}
+
+	/**
+	 * Adds a game of boardSize pits per side and startingPieces stones per
+	 * pit, whose moves were moves[0..count-1] and whose final net score
+	 * was result.
+	 */
+	public synchronized void add(int boardSize, int startingPieces, long result, int[] moves, int count)
+			throws IOException {
+		if (closed) {
+			throw new IOException("game record writer is closed");
+		}
+		checkFailure();
+		if (boardSize < 1 || boardSize > 126 || startingPieces < 0 || startingPieces > 255) {
+			throw new IllegalArgumentException("board too large to record: " + boardSize + " x " + startingPieces);
+		}
+		if (count > MAX_MOVES) {
+			throw new IllegalArgumentException("game too long to record: " + count + " moves");
+		}
+		int bytes = HEADER_BYTES + count;
+		if (current.remaining() < bytes) {
+			flush();
+		}
+		ByteBuffer out = current.remaining() < bytes ? ByteBuffer.allocate(bytes) : current;
+		out.put((byte) boardSize).put((byte) startingPieces).putShort((short) count).putInt((int) result);
+		for (int i = 0; i < count; ++i) {
+			out.put((byte) moves[i]);
+		}
+		if (out != current) {
+			// bigger than a whole buffer, write it on its own
+			out.flip();
+			hand(out, false);
+		}
+		games++;
+	}
+
+	// the number of games added since this writer was opened
+	public synchronized long getGames() {
+		return games;
+	}
+
+	/**
+	 * Hands what has been added so far to the background thread.
+	 */
+	public synchronized void flush() throws IOException {
+		if (current.position() == 0) {
+			return;
+		}
+		current.flip();
+		hand(current, true);
+		try {
+			current = free.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for a game record buffer");
+		}
+		current.clear();
+	}
+
+	// write buffer on the background thread, returning it to free afterwards if reuse
+	private void hand(ByteBuffer buffer, boolean reuse) {
+		disk.execute(() -> {
+			try {
+				while (buffer.hasRemaining() && failure == null) {
+					channel.write(buffer);
+				}
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			} finally {
+				if (reuse) {
+					free.add(buffer);
+				}
+			}
+		});
+	}
+
+	private void checkFailure() throws IOException {
+		if (failure != null) {
+			throw new IOException("writing game records failed", failure);
+		}
+	}
+
+	/**
+	 * Writes everything added, waits for the disk and closes the file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			flush();
+			disk.shutdown();
+			try {
+				disk.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted closing game records");
+			}
+			checkFailure();
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * An immutable copy of a Mancala position.
+ *
+ * GameState's board and fields are mutable and visible to the whole
+ * package, so a GameState handed to another thread or kept in a cache can
+ * change underneath whoever holds it. A GameSnapshot copies the board once
+ * when it is made and never lets it out again, so it can be shared between
+ * threads and passed to executors without defensive copies, and it is
+ * safe as a key in a HashMap or ConcurrentHashMap.
+ *
+ * The hash is worked out once in the constructor. equals compares the
+ * hashes before the boards, so unequal snapshots are nearly always told
+ * apart without looking at the board.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.Arrays;
+
+public final class GameSnapshot {
+
+	private final int[] board;
+	private final boolean bottomTurn;
+	private final long totalPieces;
+	private final long hash;
+
+	private GameSnapshot(int[] board, boolean bottomTurn, long totalPieces) {
+		this.board = board;
+		this.bottomTurn = bottomTurn;
+		this.totalPieces = totalPieces;
+		long h = bottomTurn ? 0x9E3779B97F4A7C15L : 0;
+		for (int count : board) {
+			h = mix(h + count);
+		}
+		hash = mix(h + board.length);
+	}
+
+	// the SplitMix64 finalizer, so every input bit changes about half the output bits
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	// a snapshot of g, which may change afterwards without affecting it
+	public static GameSnapshot of(GameState g) {
+		return new GameSnapshot(g.board.clone(), g.isBottomTurn, g.totalPieces);
+	}
+
+	public static GameSnapshot of(PackedGameState s) {
+		return new GameSnapshot(s.copyBoard(new int[s.getBoardLength()]), s.getTurn(), s.getTotalPieces());
+	}
+
+	// a new GameState of this position, the caller may change it freely
+	public GameState toGameState() {
+		return new GameState(board.clone(), bottomTurn, totalPieces);
+	}
+
+	public PackedGameState toPackedGameState() {
+		return new PackedGameState(toGameState());
+	}
+
+	// the snapshot after move m, which must be legal
+	public GameSnapshot makeMove(Move m) {
+		return of(toGameState().makeMove(m));
+	}
+
+	public int getCount(int loc) {
+		return board[loc];
+	}
+
+	public int getBoardLength() {
+		return board.length;
+	}
+
+	public boolean getTurn() {
+		return bottomTurn;
+	}
+
+	public long getTotalPieces() {
+		return totalPieces;
+	}
+
+	// determine if a game is over
+	public boolean isGameOver() {
+		int bottomScore = board.length / 2 - 1;
+		return isEmpty(0, bottomScore) || isEmpty(bottomScore + 1, board.length - 1);
+	}
+
+	private boolean isEmpty(int from, int to) {
+		for (int i = from; i < to; ++i) {
+			if (board[i] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// a 64 bit hash of the position, for tables keyed by long
+	public long longHash() {
+		return hash;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof GameSnapshot)) {
+			return false;
+		}
+		GameSnapshot other = (GameSnapshot) o;
+		return hash == other.hash && bottomTurn == other.bottomTurn && totalPieces == other.totalPieces
+				&& Arrays.equals(board, other.board);
+	}
+
+	// the side to move and then the count at every location, as in the benchmark positions file
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder(bottomTurn ? "B" : "T");
+		for (int count : board) {
+			s.append(' ').append(count);
+		}
+		return s.toString();
+	}
+}
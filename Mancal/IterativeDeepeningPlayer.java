@@ -0,0 +1,830 @@
+/**
+ * A MancalaPlayer that runs iterative deepening alpha-beta until its
+ * deadline.
+ *
+ * Each iteration searches one ply deeper than the last, trying the
+ * previous principal variation and the transposition table move first.
+ * The clock is only read once every CHECK_INTERVAL nodes. When time runs
+ * out the unfinished iteration is thrown away and the best move of the
+ * deepest completed iteration is played.
+ *
+ * Scores are negamax scores from the point of view of the player to move.
+ * A move that earns an extra turn keeps the same player to move, so its
+ * child is searched with the same window and its value is not negated.
+ *
+ * With pondering on, after each move the player guesses the opponent's
+ * reply from the table and searches the position after it on a thread of
+ * its own while the opponent thinks. If the opponent plays the guess, the
+ * next getMove finds the table full of that search and its iterations up
+ * to the pondered depth go quickly. Otherwise the ponder search is
+ * stopped and its work is only as useful as any other table entries.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class IterativeDeepeningPlayer extends MancalaPlayer implements MiniMax {
+
+	// the deepest search that will be attempted
+	static final int MAX_PLY = 128;
+
+	// the clock is checked when the node count is a multiple of this (a power of 2)
+	static final int CHECK_INTERVAL = 1024;
+
+	// an MTD(f) search that has not converged after this many passes finishes with a full window
+	static final int MAX_MTDF_PASSES = 64;
+
+	// how each depth is searched
+	public enum Driver {
+		// one alpha-beta search with the full window
+		ALPHA_BETA,
+		// principal variation search: the first move with the full window,
+		// the rest with a null window, searched again only if they beat it
+		PVS,
+		// MTD(f): null window searches that close in on the value from a first
+		// guess, the previous depth's score, relying on the table between passes
+		MTDF
+	}
+
+	// time in ms kept back from the deadline by searches that are not timed by a TimeManager
+	long safetyMargin = 30;
+
+	// the deepest iteration getMove will run
+	int maxDepth = MAX_PLY;
+
+	Driver driver = Driver.PVS;
+
+	// quiescence nodes allowed below each leaf of the main search, 0 for no quiescence search
+	int quiescenceBudget = 64;
+	// what is left of the budget at the current leaf
+	int quiescenceLeft;
+
+	// rotates the order of the moves that are not the PV or table move,
+	// so helper searches in LazySmpPlayer explore different parts of the tree
+	int orderingOffset;
+
+	// true for helper searches that share a table owned by another search
+	boolean helper;
+
+	// orders the moves after the PV and table moves, null for location order
+	MoveOrdering ordering = new MoveOrdering(MAX_PLY);
+
+	// set by another thread to stop the search at the next clock check
+	volatile boolean stopRequested;
+
+	// the position being searched, changed in place by make/unmake
+	PackedGameState state;
+
+	// when the current search must stop, and whether it has
+	long stopTime;
+	boolean aborted;
+
+	// decides after each iteration whether to start another, null to go until stopTime
+	TimeManager timing;
+
+	// true if some leaf of the last iteration was cut off by depth rather than the end of the game
+	boolean depthLimited;
+
+	// the principal variation found at each ply of the current iteration
+	final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+	final int[] pvLength = new int[MAX_PLY + 1];
+
+	// the principal variation of the last completed iteration
+	int[] previousPv = new int[MAX_PLY];
+	int previousPvLength;
+	boolean followPv;
+
+	// the board handed to the evaluator
+	int[] evaluatorBoard = new int[0];
+
+	// buffers for the ordered moves at each ply
+	int[][] moveBuffer = new int[MAX_PLY + 1][];
+
+	// searches one at a time: a getMove abandoned by Mancala can still be running
+	// when the next ponder or getMove starts
+	private final Object searchLock = new Object();
+
+	// the thread that ponders, made when it is first needed
+	private ExecutorService ponderThread;
+	private volatile Future<?> ponderTask;
+	// a ponder search stops when this is no longer the value it started with,
+	// unlike stopRequested it is not cleared by startSearch
+	private volatile int ponderGeneration;
+	// the position the ponder search expected to be asked about, and the depth it completed
+	private GameSnapshot ponderPosition;
+	private int ponderDepth;
+	// true while getMove continues from a ponder hit, so the table keeps the ponder search's age
+	private boolean ponderHit;
+
+	// pondering statistics over all moves
+	int ponderHits;
+	int ponderMisses;
+	long ponderedDepth;
+
+	// statistics for the last move
+	int nodesGenerated;
+	// nodes below the depth limit, not counted in nodesGenerated
+	int quiescenceNodes;
+	int staticEvaluations;
+	int nodesExpanded;
+	long childrenGenerated;
+	long childrenExplored;
+	int completedDepth;
+	double bestScore;
+	int tablebaseHits;
+	long searchStart;
+	// ns after the start of the search that each depth was completed
+	final long[] depthTimes = new long[MAX_PLY + 1];
+	// the searching thread's counters, only used when SearchStats.ENABLED
+	SearchStats stats;
+
+	public IterativeDeepeningPlayer() {
+		table = new TranspositionTable();
+	}
+
+	@Override
+	public Move getMove(GameState g, long deadline) {
+		stopPondering();
+		synchronized (searchLock) {
+			return search(g, deadline);
+		}
+	}
+
+	private Move search(GameState g, long deadline) {
+		TimeManager timeManager = getTimeManager();
+		report = null;
+		if (ponderPosition != null) {
+			ponderHit = ponderPosition.equals(GameSnapshot.of(g));
+			if (ponderHit) {
+				ponderHits++;
+				ponderedDepth += ponderDepth;
+			} else {
+				ponderMisses++;
+			}
+			ponderPosition = null;
+		}
+		Move booked = bookMove(g);
+		if (booked != null) {
+			ponderHit = false;
+			return booked;
+		}
+		startSearch(g, deadline);
+		ponderHit = false;
+		long legal = state.getLegalMoveMask();
+		timing = timeManager;
+		timeManager.startMove(Long.bitCount(legal), deadline);
+		stopTime = timeManager.getHardStop();
+		if (timeManager.isForced()) {
+			timeManager.endMove();
+			return Move.of(Long.numberOfTrailingZeros(legal));
+		}
+		int move = deepen(1, 1);
+		if (SearchStats.ENABLED) {
+			report = new SearchReport(toString(), System.nanoTime() - searchStart, nodesGenerated, quiescenceNodes,
+					completedDepth, bestScore, depthTimes, stats, pvString());
+		}
+		timeManager.endMove();
+		return Move.of(move);
+	}
+
+	/**
+	 * Stops the last ponder search without waiting for it and queues a
+	 * search after the expected reply to g. This runs on the game's thread,
+	 * so it must not wait for a search that may be queued behind an
+	 * abandoned getMove.
+	 */
+	@Override
+	public void ponder(GameState g) {
+		signalPonderStop();
+		if (!pondering || table == null || g.isGameOver()) {
+			return;
+		}
+		if (ponderThread == null) {
+			ponderThread = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "mancala-ponder");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		PackedGameState position = new PackedGameState(g);
+		int generation = ponderGeneration;
+		ponderTask = ponderThread.submit(() -> ponderSearch(position, generation));
+	}
+
+	// search the position after the expected reply to position until the generation changes
+	private void ponderSearch(PackedGameState position, int generation) {
+		synchronized (searchLock) {
+			ponderPosition = null;
+			if (ponderGeneration != generation) {
+				return;
+			}
+			GameState predicted = predictReply(position);
+			if (predicted == null) {
+				return;
+			}
+			startSearch(predicted, Long.MAX_VALUE / 2);
+			// signalPonderStop may have set stopRequested before startSearch cleared it
+			if (ponderGeneration != generation) {
+				return;
+			}
+			ponderPosition = GameSnapshot.of(predicted);
+			deepen(1, 1);
+			ponderDepth = completedDepth;
+		}
+	}
+
+	/**
+	 * The position after the opponent's expected reply to s, following the
+	 * table's best moves through any extra turns until it is this player's
+	 * move, or null if the game ends first or the table has no move.
+	 */
+	GameState predictReply(PackedGameState s) {
+		boolean opponent = s.getTurn();
+		for (int ply = 0; s.getTurn() == opponent; ++ply) {
+			if (ply == MAX_PLY || s.isGameOver()) {
+				return null;
+			}
+			long data = table.probe(table.hash(s));
+			int move = data == 0 ? -1 : TranspositionTable.move(data);
+			if (move < 0 || !s.isLegalMove(move)) {
+				return null;
+			}
+			s.make(move);
+		}
+		return s.isGameOver() ? null : s.toGameState();
+	}
+
+	// stop the ponder search that is running or queued, without waiting for it
+	private void signalPonderStop() {
+		if (ponderTask == null) {
+			return;
+		}
+		// in this order, so a search starting now sees the new generation after startSearch
+		ponderGeneration++;
+		stopRequested = true;
+	}
+
+	@Override
+	public void stopPondering() {
+		Future<?> task = ponderTask;
+		if (task == null) {
+			return;
+		}
+		signalPonderStop();
+		try {
+			task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+		}
+		ponderTask = null;
+	}
+
+	@Override
+	public void close() {
+		stopPondering();
+		if (ponderThread != null) {
+			ponderThread.shutdown();
+		}
+	}
+
+	// the number of moves the ponder search had guessed the position of
+	public int getPonderHits() {
+		return ponderHits;
+	}
+
+	// the number of moves made after pondering on a different position
+	public int getPonderMisses() {
+		return ponderMisses;
+	}
+
+	// the average depth the ponder search completed before a hit
+	public double getAveragePonderDepth() {
+		return ponderHits == 0 ? 0 : (double) ponderedDepth / ponderHits;
+	}
+
+	/**
+	 * Run iterations at firstDepth, firstDepth + step, ... until time runs
+	 * out, the whole game tree has been searched or maxDepth is reached.
+	 *
+	 * @return the best move of the deepest completed iteration
+	 */
+	int deepen(int firstDepth, int step) {
+		if (SearchStats.ENABLED) {
+			stats = SearchStats.local();
+			stats.reset();
+		}
+		int bestMove = Long.numberOfTrailingZeros(state.getLegalMoveMask());
+		for (int depth = firstDepth; depth <= maxDepth; depth += step) {
+			double score = searchRoot(depth);
+			if (aborted) {
+				break;
+			}
+			bestMove = pv[0][0];
+			bestScore = score;
+			completedDepth = depth;
+			depthTimes[depth] = System.nanoTime() - searchStart;
+			savePv();
+			if (verbose) {
+				System.out.println(this + " depth " + depth + " score " + score + " pv " + pvString() + " nodes "
+						+ nodesGenerated);
+			}
+			if (!depthLimited) {
+				// the whole game tree was searched, deeper iterations cannot change anything
+				break;
+			}
+			if (timing != null && !timing.iterationDone(depth, score, bestMove)) {
+				break;
+			}
+		}
+		return bestMove;
+	}
+
+	// reset the statistics and set up the search of g
+	void startSearch(GameState g, long deadline) {
+		state = new PackedGameState(g);
+		stopTime = deadline - safetyMargin;
+		timing = null;
+		aborted = false;
+		stopRequested = false;
+		searchStart = System.nanoTime();
+		previousPvLength = 0;
+		nodesGenerated = 0;
+		quiescenceNodes = 0;
+		staticEvaluations = 0;
+		nodesExpanded = 0;
+		childrenGenerated = 0;
+		childrenExplored = 0;
+		completedDepth = 0;
+		bestScore = 0;
+		tablebaseHits = 0;
+		Arrays.fill(depthTimes, 0);
+		for (int i = 0; i < moveBuffer.length; ++i) {
+			if (moveBuffer[i] == null || moveBuffer[i].length < state.getBoardLength()) {
+				moveBuffer[i] = new int[state.getBoardLength()];
+			}
+		}
+		if (ordering != null) {
+			ordering.newSearch();
+		}
+		if (table != null && !helper) {
+			if (!ponderHit) {
+				table.newSearch();
+			}
+			table.resetStatistics();
+		}
+	}
+
+	// search the root to depth and return its score for the player to move
+	double searchRoot(int depth) {
+		if (driver == Driver.MTDF) {
+			return mtdf(depth, bestScore);
+		}
+		depthLimited = false;
+		followPv = true;
+		return alphaBeta(depth, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * MTD(f): each pass is a null window search that shows the value is
+	 * above or below its test value, until the bounds meet. Every value is
+	 * a multiple of Evaluator.STEP, so null windows are [x - STEP, x]. It
+	 * needs fewest passes when values are whole numbers as with currentScore.
+	 */
+	double mtdf(int depth, double guess) {
+		double lower = Double.NEGATIVE_INFINITY;
+		double upper = Double.POSITIVE_INFINITY;
+		double g = guess;
+		boolean limited = false;
+		// the principal variation of the last pass that failed high
+		int[] bestPv = new int[MAX_PLY + 1];
+		int bestPvLength = 0;
+		for (int pass = 0; lower < upper && pass < MAX_MTDF_PASSES; ++pass) {
+			double beta = g == lower ? g + Evaluator.STEP : g;
+			depthLimited = false;
+			followPv = true;
+			g = alphaBeta(depth, 0, beta - Evaluator.STEP, beta);
+			if (aborted) {
+				return 0;
+			}
+			limited |= depthLimited;
+			if (g < beta) {
+				upper = g;
+			} else {
+				lower = g;
+				bestPvLength = pvLength[0];
+				System.arraycopy(pv[0], 0, bestPv, 0, bestPvLength);
+			}
+		}
+		if (lower < upper || bestPvLength == 0) {
+			depthLimited = false;
+			followPv = true;
+			g = alphaBeta(depth, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+			depthLimited |= limited;
+			return g;
+		}
+		System.arraycopy(bestPv, 0, pv[0], 0, bestPvLength);
+		pvLength[0] = bestPvLength;
+		depthLimited = limited;
+		return g;
+	}
+
+	/**
+	 * Negamax alpha-beta on state.
+	 *
+	 * @return the value of state for the player to move, or 0 if the search was aborted
+	 */
+	double alphaBeta(int depth, int ply, double alpha, double beta) {
+		pvLength[ply] = ply;
+		if ((nodesGenerated & (CHECK_INTERVAL - 1)) == 0
+				&& (stopRequested || System.currentTimeMillis() >= stopTime)) {
+			aborted = true;
+		}
+		if (aborted) {
+			return 0;
+		}
+		boolean bottomTurn = state.getTurn();
+		if (state.isGameOver()) {
+			return bottomTurn ? state.getFinalNetScore() : -state.getFinalNetScore();
+		}
+		if (tablebase != null && ply > 0) {
+			int exact = tablebase.probe(state);
+			if (exact != EndgameTablebase.NOT_FOUND) {
+				tablebaseHits++;
+				return bottomTurn ? exact : -exact;
+			}
+		}
+		if (depth == 0) {
+			depthLimited = true;
+			if (quiescenceBudget > 0) {
+				quiescenceLeft = quiescenceBudget;
+				return quiesce(ply, alpha, beta);
+			}
+			staticEvaluations++;
+			double score = evaluate(state);
+			return bottomTurn ? score : -score;
+		}
+
+		double originalAlpha = alpha;
+		long key = 0;
+		int tableMove = -1;
+		if (table != null) {
+			key = table.hash(state);
+			long data = table.probe(key);
+			if (SearchStats.ENABLED) {
+				stats.tableProbes++;
+				if (data != 0) {
+					stats.tableHits++;
+				}
+			}
+			if (data != 0) {
+				tableMove = TranspositionTable.move(data);
+				if (ply > 0 && TranspositionTable.depth(data) >= depth) {
+					double value = TranspositionTable.value(data);
+					int bound = TranspositionTable.bound(data);
+					if (bound == TranspositionTable.EXACT
+							|| (bound == TranspositionTable.LOWER && value >= beta)
+							|| (bound == TranspositionTable.UPPER && value <= alpha)) {
+						// the stored search may have stopped at its depth limit
+						depthLimited = true;
+						return value;
+					}
+				}
+			}
+		}
+
+		int[] moves = moveBuffer[ply];
+		int count = orderMoves(state.getLegalMoveMask(), ply, tableMove, moves);
+		nodesExpanded++;
+		childrenGenerated += count;
+
+		double best = Double.NEGATIVE_INFINITY;
+		int bestMove = -1;
+		for (int i = 0; i < count; ++i) {
+			int m = moves[i];
+			nodesGenerated++;
+			childrenExplored++;
+			state.make(m);
+			boolean sameSide = state.getTurn() == bottomTurn;
+			double value;
+			if (driver == Driver.PVS && i > 0) {
+				// show this move is no better than alpha, and only if not search it properly
+				double nullBeta = alpha + Evaluator.STEP;
+				value = sameSide ? alphaBeta(depth - 1, ply + 1, alpha, nullBeta)
+						: -alphaBeta(depth - 1, ply + 1, -nullBeta, -alpha);
+				if (value > alpha && value < beta && !aborted) {
+					value = sameSide ? alphaBeta(depth - 1, ply + 1, alpha, beta)
+							: -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+				}
+			} else if (sameSide) {
+				value = alphaBeta(depth - 1, ply + 1, alpha, beta);
+			} else {
+				value = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+			}
+			state.unmake();
+			followPv = false;
+			if (aborted) {
+				return 0;
+			}
+			if (value > best) {
+				best = value;
+				bestMove = m;
+				if (value > alpha) {
+					alpha = value;
+					updatePv(ply, m);
+				}
+				if (alpha >= beta) {
+					if (SearchStats.ENABLED) {
+						stats.cutoff(i);
+					}
+					if (ordering != null) {
+						ordering.cutoff(m, ply, depth);
+					}
+					break;
+				}
+			}
+		}
+
+		if (table != null) {
+			int bound = best <= originalAlpha ? TranspositionTable.UPPER
+					: best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+			table.store(key, depth, bound, best, bestMove);
+		}
+		return best;
+	}
+
+	/**
+	 * Search only extra-turn and capture moves below the depth limit, so
+	 * leaves are not evaluated halfway through a chain of extra turns or
+	 * just before a capture. The player to move may always stop and take
+	 * the static evaluation instead. Stops when there are no such moves
+	 * left or the leaf's budget of quiescenceBudget nodes runs out.
+	 *
+	 * @return the value of state for the player to move
+	 */
+	double quiesce(int ply, double alpha, double beta) {
+		pvLength[ply] = ply;
+		boolean bottomTurn = state.getTurn();
+		if (state.isGameOver()) {
+			return bottomTurn ? state.getFinalNetScore() : -state.getFinalNetScore();
+		}
+		staticEvaluations++;
+		double score = evaluate(state);
+		double best = bottomTurn ? score : -score;
+		if (best >= beta || ply >= MAX_PLY || quiescenceLeft <= 0) {
+			return best;
+		}
+		long tactical = MoveOrdering.tacticalMoves(state, state.getLegalMoveMask());
+		if (tactical == 0) {
+			return best;
+		}
+		if (best > alpha) {
+			alpha = best;
+		}
+		int[] moves = moveBuffer[ply];
+		int count = 0;
+		if (ordering != null) {
+			count = ordering.order(state, tactical, ply, moves, 0);
+		} else {
+			for (; tactical != 0; tactical &= tactical - 1) {
+				moves[count++] = Long.numberOfTrailingZeros(tactical);
+			}
+		}
+		for (int i = 0; i < count && quiescenceLeft > 0; ++i) {
+			int m = moves[i];
+			quiescenceNodes++;
+			quiescenceLeft--;
+			state.make(m);
+			double value = state.getTurn() == bottomTurn ? quiesce(ply + 1, alpha, beta)
+					: -quiesce(ply + 1, -beta, -alpha);
+			state.unmake();
+			if (value > best) {
+				best = value;
+				if (value > alpha) {
+					alpha = value;
+					updatePv(ply, m);
+				}
+				if (alpha >= beta) {
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Put the legal moves into moves, best guesses first: the previous
+	 * principal variation, then the table move, then the rest as ordering
+	 * ranks them, or by location if there is no ordering.
+	 *
+	 * @return the number of moves
+	 */
+	int orderMoves(long legal, int ply, int tableMove, int[] moves) {
+		int count = 0;
+		if (followPv && ply < previousPvLength && (legal & 1L << previousPv[ply]) != 0) {
+			moves[count++] = previousPv[ply];
+			legal &= ~(1L << previousPv[ply]);
+		}
+		if (tableMove >= 0 && (legal & 1L << tableMove) != 0) {
+			moves[count++] = tableMove;
+			legal &= ~(1L << tableMove);
+		}
+		int first = count;
+		if (ordering != null) {
+			count = ordering.order(state, legal, ply, moves, count);
+		} else {
+			while (legal != 0) {
+				moves[count++] = Long.numberOfTrailingZeros(legal);
+				legal &= legal - 1;
+			}
+		}
+		int rest = count - first;
+		if (orderingOffset != 0 && rest > 1) {
+			rotate(moves, first, count, orderingOffset % rest);
+		}
+		return count;
+	}
+
+	// rotate moves[from..to) left by k places
+	static void rotate(int[] moves, int from, int to, int k) {
+		reverse(moves, from, from + k);
+		reverse(moves, from + k, to);
+		reverse(moves, from, to);
+	}
+
+	private static void reverse(int[] moves, int from, int to) {
+		for (int i = from, j = to - 1; i < j; ++i, --j) {
+			int t = moves[i];
+			moves[i] = moves[j];
+			moves[j] = t;
+		}
+	}
+
+	void updatePv(int ply, int move) {
+		pv[ply][ply] = move;
+		for (int i = ply + 1; i < pvLength[ply + 1]; ++i) {
+			pv[ply][i] = pv[ply + 1][i];
+		}
+		pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+	}
+
+	void savePv() {
+		previousPvLength = pvLength[0];
+		System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+	}
+
+	String pvString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < previousPvLength; ++i) {
+			sb.append(previousPv[i]).append(' ');
+		}
+		return sb.toString().trim();
+	}
+
+	// the static evaluation used at the leaves, positive is good for bottom
+	double evaluate(PackedGameState s) {
+		if (evaluator == null) {
+			return s.currentScore();
+		}
+		if (evaluatorBoard.length != s.getBoardLength()) {
+			evaluatorBoard = new int[s.getBoardLength()];
+		}
+		// on the grid the table stores exactly, see Evaluator.STEP
+		return Evaluator.quantize(evaluator.evaluate(s.copyBoard(evaluatorBoard), s.getTurn()));
+	}
+
+	@Override
+	public double staticEvaluator(GameState state) {
+		return evaluator == null ? state.currentScore() : Evaluator.quantize(evaluator.evaluate(state));
+	}
+
+	@Override
+	public int getNodesGenerated() {
+		return nodesGenerated;
+	}
+
+	// nodes searched below the depth limit in the last search
+	public int getQuiescenceNodes() {
+		return quiescenceNodes;
+	}
+
+	@Override
+	public int getStaticEvaluations() {
+		return staticEvaluations;
+	}
+
+	@Override
+	public double getAveBranchingFactor() {
+		return nodesExpanded == 0 ? 0 : (double) childrenGenerated / nodesExpanded;
+	}
+
+	@Override
+	public double getEffectiveBranchingFactor() {
+		return nodesExpanded == 0 ? 0 : (double) childrenExplored / nodesExpanded;
+	}
+
+	// the depth of the last completed iteration
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	// ns from the start of the last search until depth was completed, 0 if it never was
+	public long getDepthTime(int depth) {
+		return depthTimes[depth];
+	}
+
+	// the number of positions whose exact value came from the tablebase in the last search
+	public int getTablebaseHits() {
+		return tablebaseHits;
+	}
+
+	// the score of the last completed iteration for the player to move
+	public double getBestScore() {
+		return bestScore;
+	}
+
+	public String toString() {
+		return "IterativeDeepening";
+	}
+
+	/**
+	 * Read positions written as one line each: the side to move, B or T,
+	 * then the count at every location. Lines starting with # are skipped.
+	 */
+	static List<GameState> readPositions(String fileName) throws IOException {
+		return readPositions(new FileReader(fileName));
+	}
+
+	// the same as readPositions(String) from any reader, which is closed afterwards
+	static List<GameState> readPositions(Reader reader) throws IOException {
+		List<GameState> positions = new ArrayList<>();
+		try (BufferedReader in = new BufferedReader(reader)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split("\\s+");
+				int[] board = new int[fields.length - 1];
+				long total = 0;
+				for (int i = 0; i < board.length; ++i) {
+					board[i] = Integer.parseInt(fields[i + 1]);
+					total += board[i];
+				}
+				positions.add(new GameState(board, fields[0].equals("B"), total));
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Search every benchmark position to the same depth with each driver
+	 * and print the nodes each needed. Every search starts with an empty
+	 * table, and all drivers must agree on the scores.
+	 *
+	 * args: [depth] [positions file]
+	 */
+	public static void main(String[] args) throws IOException {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 14;
+		String fileName = args.length > 1 ? args[1] : "bench/src/main/resources/positions.txt";
+		List<GameState> positions = readPositions(fileName);
+		double[] reference = null;
+		System.out.println("driver\tnodes\tevaluations\tms");
+		for (Driver d : Driver.values()) {
+			IterativeDeepeningPlayer p = new IterativeDeepeningPlayer();
+			p.maxDepth = depth;
+			p.driver = d;
+			double[] scores = new double[positions.size()];
+			long nodes = 0;
+			long evaluations = 0;
+			long begin = System.nanoTime();
+			for (int i = 0; i < scores.length; ++i) {
+				p.getTranspositionTable().clear();
+				p.ordering.clear();
+				p.startSearch(positions.get(i), Long.MAX_VALUE / 2);
+				p.deepen(1, 1);
+				scores[i] = p.bestScore;
+				nodes += p.nodesGenerated;
+				evaluations += p.staticEvaluations;
+			}
+			long ms = (System.nanoTime() - begin) / 1000000;
+			System.out.println(d + "\t" + nodes + "\t" + evaluations + "\t" + ms);
+			if (reference == null) {
+				reference = scores;
+			} else if (!Arrays.equals(reference, scores)) {
+				System.out.println(d + " scores differ: " + Arrays.toString(scores) + " vs "
+						+ Arrays.toString(reference));
+			}
+		}
+	}
+}
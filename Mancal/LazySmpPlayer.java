@@ -0,0 +1,306 @@
+/**
+ * A MancalaPlayer that searches with several threads at once (Lazy SMP).
+ *
+ * Every thread runs its own IterativeDeepeningPlayer search from the same
+ * root, and all of them share one transposition table. The helpers start
+ * at different depths and order their moves differently, so they fill the
+ * table with results that the main search picks up. The main search runs
+ * on the calling thread. When it finishes or the deadline arrives the
+ * helpers are stopped, and the move from the deepest completed iteration
+ * of any thread is played.
+ *
+ * The table needs no locks, see TranspositionTable.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LazySmpPlayer extends MancalaPlayer implements MiniMax {
+
+	// searches[0] is the main search, the rest are helpers
+	final IterativeDeepeningPlayer[] searches;
+
+	// runs the helpers, null when there is only one thread
+	private final ExecutorService helperPool;
+
+	public LazySmpPlayer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public LazySmpPlayer(int threads) {
+		table = new TranspositionTable(22, TranspositionTable.Replacement.DEPTH_AND_AGE);
+		searches = new IterativeDeepeningPlayer[threads];
+		for (int i = 0; i < threads; ++i) {
+			searches[i] = new IterativeDeepeningPlayer();
+			searches[i].setTranspositionTable(table);
+			searches[i].helper = i > 0;
+			searches[i].orderingOffset = i;
+		}
+		if (threads > 1) {
+			helperPool = Executors.newFixedThreadPool(threads - 1, r -> {
+				Thread t = new Thread(r, "lazy-smp-helper");
+				t.setDaemon(true);
+				return t;
+			});
+		} else {
+			helperPool = null;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (helperPool != null) {
+			helperPool.shutdown();
+		}
+	}
+
+	@Override
+	public Move getMove(GameState g, long deadline) {
+		TimeManager timeManager = getTimeManager();
+		report = null;
+		Move booked = bookMove(g);
+		if (booked != null) {
+			return booked;
+		}
+		IterativeDeepeningPlayer main = searches[0];
+		if (table != null) {
+			// build the Zobrist keys before the helpers start hashing
+			table.hash(g);
+		}
+		main.startSearch(g, deadline);
+		long legal = main.state.getLegalMoveMask();
+		// the main search decides when to stop, the helpers are stopped with it
+		timeManager.startMove(Long.bitCount(legal), deadline);
+		if (timeManager.isForced()) {
+			timeManager.endMove();
+			return Move.of(Long.numberOfTrailingZeros(legal));
+		}
+		main.timing = timeManager;
+		main.stopTime = timeManager.getHardStop();
+
+		List<Future<Integer>> running = new ArrayList<>();
+		for (int i = 1; i < searches.length; ++i) {
+			IterativeDeepeningPlayer h = searches[i];
+			h.startSearch(g, deadline);
+			h.stopTime = timeManager.getHardStop();
+			// half of the helpers skip the first depth so they run ahead of the main search
+			int firstDepth = 1 + i % 2;
+			running.add(helperPool.submit(() -> h.deepen(firstDepth, 1)));
+		}
+		int bestMove = main.deepen(1, 1);
+		for (int i = 1; i < searches.length; ++i) {
+			searches[i].stopRequested = true;
+		}
+
+		IterativeDeepeningPlayer best = main;
+		for (int i = 0; i < running.size(); ++i) {
+			try {
+				int move = running.get(i).get();
+				IterativeDeepeningPlayer h = searches[i + 1];
+				if (h.completedDepth > best.completedDepth) {
+					best = h;
+					bestMove = move;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			}
+		}
+		if (SearchStats.ENABLED) {
+			report = report(best);
+		}
+		timeManager.endMove();
+		if (verbose) {
+			System.out.println(this + " depth " + best.completedDepth + " score " + best.bestScore + " nodes "
+					+ getNodesGenerated() + " " + table);
+		}
+		return Move.of(bestMove);
+	}
+
+	// the report for the last search, with the counters of every thread added up
+	private SearchReport report(IterativeDeepeningPlayer best) {
+		SearchStats total = new SearchStats();
+		for (IterativeDeepeningPlayer s : searches) {
+			if (s.stats != null) {
+				total.add(s.stats);
+			}
+		}
+		long[] depthTimes = new long[best.completedDepth + 1];
+		for (int d = 1; d <= best.completedDepth; ++d) {
+			depthTimes[d] = getDepthTime(d);
+		}
+		return new SearchReport(toString(), System.nanoTime() - searches[0].searchStart, getNodesGenerated(),
+				getQuiescenceNodes(), best.completedDepth, best.bestScore, depthTimes, total, best.pvString());
+	}
+
+	@Override
+	public void setTranspositionTable(TranspositionTable table) {
+		super.setTranspositionTable(table);
+		for (IterativeDeepeningPlayer s : searches) {
+			s.setTranspositionTable(table);
+		}
+	}
+
+	@Override
+	public void setTablebase(EndgameTablebase tablebase) {
+		super.setTablebase(tablebase);
+		for (IterativeDeepeningPlayer s : searches) {
+			s.setTablebase(tablebase);
+		}
+	}
+
+	@Override
+	public void setEvaluator(Evaluator evaluator) {
+		super.setEvaluator(evaluator);
+		for (IterativeDeepeningPlayer s : searches) {
+			s.setEvaluator(evaluator);
+		}
+	}
+
+	// limit every thread to this depth, mostly for measuring time to depth
+	public void setMaxDepth(int depth) {
+		for (IterativeDeepeningPlayer s : searches) {
+			s.maxDepth = depth;
+		}
+	}
+
+	// the deepest iteration completed by any thread in the last search
+	public int getCompletedDepth() {
+		int depth = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			depth = Math.max(depth, s.completedDepth);
+		}
+		return depth;
+	}
+
+	// ns from the start of the main search until some thread completed depth, 0 if none did.
+	// every thread times from its own start, so the helpers' times are moved onto the
+	// main search's clock before taking the earliest, and never reported below zero
+	public long getDepthTime(int depth) {
+		long start = searches[0].searchStart;
+		long time = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			long t = s.getDepthTime(depth);
+			if (t > 0) {
+				t = Math.max(1, s.searchStart + t - start);
+				if (time == 0 || t < time) {
+					time = t;
+				}
+			}
+		}
+		return time;
+	}
+
+	@Override
+	public double staticEvaluator(GameState state) {
+		return searches[0].staticEvaluator(state);
+	}
+
+	@Override
+	public int getNodesGenerated() {
+		int nodes = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			nodes += s.nodesGenerated;
+		}
+		return nodes;
+	}
+
+	// quiescence nodes of every thread in the last search
+	public int getQuiescenceNodes() {
+		int nodes = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			nodes += s.quiescenceNodes;
+		}
+		return nodes;
+	}
+
+	@Override
+	public int getStaticEvaluations() {
+		int evaluations = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			evaluations += s.staticEvaluations;
+		}
+		return evaluations;
+	}
+
+	@Override
+	public double getAveBranchingFactor() {
+		long expanded = 0;
+		long children = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			expanded += s.nodesExpanded;
+			children += s.childrenGenerated;
+		}
+		return expanded == 0 ? 0 : (double) children / expanded;
+	}
+
+	@Override
+	public double getEffectiveBranchingFactor() {
+		long expanded = 0;
+		long children = 0;
+		for (IterativeDeepeningPlayer s : searches) {
+			expanded += s.nodesExpanded;
+			children += s.childrenExplored;
+		}
+		return expanded == 0 ? 0 : (double) children / expanded;
+	}
+
+	public String toString() {
+		return "LazySmp" + searches.length;
+	}
+
+	/**
+	 * Prints how the node rate and the time to reach a fixed depth scale
+	 * from 1 to N threads on a few positions from the standard game.
+	 *
+	 * args: [max threads] [depth]
+	 */
+	public static void main(String[] args) {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+		List<GameState> positions = new ArrayList<>();
+		Random random = new Random(364);
+		for (int i = 0; i < 4; ++i) {
+			GameState g = new GameState(7, 4);
+			for (int ply = 0; ply < i * 4 && !g.isGameOver(); ++ply) {
+				List<Move> moves = g.getLegalMoves();
+				g = g.makeMove(moves.get(random.nextInt(moves.size())));
+			}
+			positions.add(g);
+		}
+		System.out.println("threads\tnodes/s\tms to depth " + depth + "\tspeedup");
+		double baseline = 0;
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			LazySmpPlayer p = new LazySmpPlayer(threads);
+			p.setMaxDepth(depth);
+			long nodes = 0;
+			long nanos = 0;
+			long toDepth = 0;
+			for (GameState g : positions) {
+				p.getTranspositionTable().clear();
+				long start = System.nanoTime();
+				p.getMove(g, System.currentTimeMillis() + 3600000);
+				nanos += System.nanoTime() - start;
+				nodes += p.getNodesGenerated();
+				toDepth += p.getDepthTime(Math.min(depth, p.getCompletedDepth()));
+			}
+			double ms = toDepth / 1e6;
+			if (threads == 1) {
+				baseline = ms;
+			}
+			System.out.println(threads + "\t" + String.format("%.0f", nodes / (nanos / 1e9)) + "\t"
+					+ String.format("%.1f", ms) + "\t" + String.format("%.2f", baseline / ms));
+			if (threads < maxThreads && threads * 2 > maxThreads) {
+				threads = maxThreads / 2;
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * An Evaluator that is a weighted sum of board features. Every feature is
+ * bottom's value minus top's:
+ *
+ * STORES       stones in the store
+ * SEEDS        stones in the pits
+ * MOBILITY     pits that can be played
+ * CAPTURES     the most stones one move could capture now
+ * EXTRA_TURNS  pits whose last stone lands in the store
+ * TURN         1 when it is bottom's turn, -1 when it is top's
+ *
+ * The features are worked out in one pass over the pits, pairing each
+ * bottom pit with the top pit the same distance from its store, and use
+ * arithmetic and conditional moves rather than branches where they can.
+ * The weights come from EvaluatorTuner.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class LinearEvaluator implements Evaluator {
+
+	public static final int STORES = 0;
+	public static final int SEEDS = 1;
+	public static final int MOBILITY = 2;
+	public static final int CAPTURES = 3;
+	public static final int EXTRA_TURNS = 4;
+	public static final int TURN = 5;
+	public static final int FEATURES = 6;
+
+	static final String[] NAMES = { "stores", "seeds", "mobility", "captures", "extra turns", "turn" };
+
+	final double[] weights;
+
+	// weights that make this the same as currentScore()
+	public LinearEvaluator() {
+		this(new double[] { 1, 0, 0, 0, 0, 0 });
+	}
+
+	public LinearEvaluator(double[] weights) {
+		if (weights.length != FEATURES) {
+			throw new IllegalArgumentException("need " + FEATURES + " weights, not " + weights.length);
+		}
+		this.weights = weights.clone();
+	}
+
+	@Override
+	public double evaluate(int[] board, boolean bottomTurn) {
+		double[] w = weights;
+		int length = board.length;
+		int half = length / 2;
+		int bottomScore = half - 1;
+		int topScore = length - 1;
+		int cycle = length - 1;
+		int seeds = 0;
+		int mobility = 0;
+		int extraTurns = 0;
+		int bottomCapture = 0;
+		int topCapture = 0;
+		for (int i = 0; i < bottomScore; ++i) {
+			int j = i + half;
+			int b = board[i];
+			int t = board[j];
+			int toStore = bottomScore - i;
+			seeds += b - t;
+			// -c >>> 31 is 1 for any count above 0
+			mobility += (-b >>> 31) - (-t >>> 31);
+			// counts of a lap or more are rare, so skip the division for the rest
+			int bLap = b < cycle ? b : b % cycle;
+			int tLap = t < cycle ? t : t % cycle;
+			extraTurns += ((bLap ^ toStore) - 1 >>> 31) - ((tLap ^ toStore) - 1 >>> 31);
+			// a last stone that stays in the mover's row and lands in an empty pit
+			// captures across; the conditions are 0 or 1 and masked together
+			int bl = i + b;
+			int bLand = bl < bottomScore ? bl : i;
+			int bCaptures = (bl - bottomScore >>> 31) & (-b >>> 31) & (board[bLand] - 1 >>> 31);
+			bottomCapture = Math.max(bottomCapture, board[length - 2 - bLand] & -bCaptures);
+			int tl = j + t;
+			int tLand = tl < topScore ? tl : j;
+			int tCaptures = (tl - topScore >>> 31) & (-t >>> 31) & (board[tLand] - 1 >>> 31);
+			topCapture = Math.max(topCapture, board[length - 2 - tLand] & -tCaptures);
+		}
+		return w[STORES] * (board[bottomScore] - board[topScore]) + w[SEEDS] * seeds + w[MOBILITY] * mobility
+				+ w[CAPTURES] * (bottomCapture - topCapture) + w[EXTRA_TURNS] * extraTurns
+				+ w[TURN] * (bottomTurn ? 1 : -1);
+	}
+
+	// the features of a position, for tuning
+	static double[] features(int[] board, boolean bottomTurn) {
+		double[] f = new double[FEATURES];
+		for (int k = 0; k < FEATURES; ++k) {
+			double[] unit = new double[FEATURES];
+			unit[k] = 1;
+			f[k] = new LinearEvaluator(unit).evaluate(board, bottomTurn);
+		}
+		return f;
+	}
+
+	public double[] getWeights() {
+		return weights.clone();
+	}
+
+	// one weight per line, in feature order
+	public void save(String fileName) throws IOException {
+		try (PrintWriter out = new PrintWriter(new FileWriter(fileName))) {
+			for (double w : weights) {
+				out.println(w);
+			}
+		}
+	}
+
+	public static LinearEvaluator load(String fileName) throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get(fileName));
+		double[] weights = new double[FEATURES];
+		for (int k = 0; k < FEATURES; ++k) {
+			weights[k] = Double.parseDouble(lines.get(k).trim());
+		}
+		return new LinearEvaluator(weights);
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < FEATURES; ++k) {
+			sb.append(k == 0 ? "" : ", ").append(NAMES[k]).append(' ').append(String.format("%.4f", weights[k]));
+		}
+		return sb.toString();
+	}
+}
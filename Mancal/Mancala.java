@@ -6,11 +6,52 @@
  * @author Dickinson College
  * @version Sept 9, 2020
  */
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 public class Mancala {
 
+	// runs the players' getMove calls so a slow player can be abandoned
+	// daemon threads, so a player that never returns cannot keep the program alive
+	private static final ExecutorService moveExecutor = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "mancala-move");
+		t.setDaemon(true);
+		return t;
+	});
+
 	MancalaPlayer p1, p2, randomPlayer;
 
 	int size, startingStones,time;
+
+	// how long each player took to move
+	MoveTiming p1Timing, p2Timing;
+
+	// when true only problems with the players are printed, not the games
+	boolean quiet;
+
+	// where search reports go when SearchStats.ENABLED, null for nowhere
+	// until setSearchReports is called they go to System.out, and only in games that are not quiet
+	PrintStream reportStream = System.out;
+	SearchReport.Format reportFormat = SearchReport.Format.JSON;
+	boolean reportsSet;
+
+	// where finished games are recorded, null for nowhere
+	GameRecordWriter records;
+
+	// true once a move of the current game was made for a player that did not give a legal one in time,
+	// such a game is not real play and is not recorded
+	private boolean fallbackMove;
+
+	// games not recorded because of a fallback move
+	private int unrecordedGames;
 	
 	public static void main(String[] args) {
 
@@ -32,6 +73,8 @@ public class Mancala {
 		this.startingStones = startingStones;
 		this.time = time;
 		randomPlayer = new RandomPlayer();
+		p1Timing = new MoveTiming(p1);
+		p2Timing = new MoveTiming(p2);
 	}
 
 	public long playGame() {
@@ -41,53 +84,75 @@ public class Mancala {
 	public long playGame(boolean p1IsBottom) {
 		int moveCount = 0;
 		MancalaPlayer bottom,top;
+		MoveTiming bottomTiming, topTiming;
 		if(p1IsBottom) {
 			bottom=p1;
 			top = p2;
+			bottomTiming = p1Timing;
+			topTiming = p2Timing;
 		}else {
 			bottom = p2;
 			top = p1;
+			bottomTiming = p2Timing;
+			topTiming = p1Timing;
 		}
 		GameState g = new GameState(size, startingStones);
-		while (!g.isGameOver()) {
-
-			moveCount++;
-			GameThread t;
-			if (g.isBottomTurn) {
-				t = new GameThread(bottom,g,time);
-				
-			} else {
+		fallbackMove = false;
+		PrintStream reports = reports();
+		if (SearchStats.ENABLED && reports != null && reportFormat == SearchReport.Format.CSV) {
+			reports.println(SearchReport.csvHeader());
+		}
+		int[] moves = new int[64];
+		try {
+			while (!g.isGameOver()) {
 
-				t = new GameThread(top,g,time);
-				
-			}
-		//	System.out.println("trying ");
-			t.run();
-			
-			int segments =0;
-			while(t.m==null && segments <8) {
-				try {
-					Thread.sleep(time/8);
-					segments++;
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+				moveCount++;
+				Move m;
+				if (g.isBottomTurn) {
+					m = requestMove(bottom, g, bottomTiming, moveCount);
+				} else {
+					m = requestMove(top, g, topTiming, moveCount);
 				}
-			}
+				if (moveCount > moves.length) {
+					moves = Arrays.copyOf(moves, moves.length * 2);
+				}
+				moves[moveCount - 1] = m.location;
+				boolean moverIsBottom = g.isBottomTurn;
+				g = g.makeMove(m);
+				if (g.isBottomTurn != moverIsBottom && !g.isGameOver()) {
+					// the mover may think about its next move while the opponent chooses
+					(moverIsBottom ? bottom : top).ponder(GameSnapshot.of(g).toGameState());
+				}
+				if (quiet) {
+					continue;
+				}
+				g.printBoard();
+				System.out.println("Top is " + top);
+				System.out.println("Bottom is " + bottom);
 			
-			if(t.m == null){
-				System.out.println("Player took too long! " + t.p);
-				System.out.println("Making random move...");
-				t.m=randomPlayer.getMove(g,time);
 			}
-			g = g.makeMove(t.m);
-			g.printBoard();
-			System.out.println("Top is " + top);
-			System.out.println("Bottom is " + bottom);
-			
+		} finally {
+			// an exception must not leave a player searching on
+			bottom.stopPondering();
+			top.stopPondering();
 		}
 		long finalScore = g.getFinalNetScore();
+		if (records != null && fallbackMove) {
+			unrecordedGames++;
+		} else if (records != null) {
+			try {
+				records.add(size, startingStones, finalScore, moves, moveCount);
+			} catch (IOException e) {
+				System.out.println("Could not record the game: " + e.getMessage());
+			}
+		}
+		if (quiet) {
+			return finalScore;
+		}
 		System.out.println( "Game over!");
 		System.out.println("Final net score is " + finalScore );
+		System.out.println(bottomTiming);
+		System.out.println(topTiming);
 		
 		if(finalScore > 0) {
 			System.out.println(bottom + " wins!");
@@ -99,25 +164,92 @@ public class Mancala {
 		return g.getFinalNetScore();
 	}
 
-	private class GameThread implements Runnable {
+	/**
+	 * Ask p for a move on another thread and wait at most time ms for it.
+	 * A player that is too slow is interrupted and abandoned, and a random
+	 * move is made for it instead. A player that answers in time has its
+	 * search report printed, when reports are on.
+	 */
+	private Move requestMove(MancalaPlayer p, GameState g, MoveTiming timing, int moveNumber) {
+		long start = System.currentTimeMillis();
+		long deadline = start + time;
+		// the player gets its own copy, so one that is abandoned and keeps
+		// running cannot change the board the game goes on with
+		GameSnapshot position = GameSnapshot.of(g);
+		Future<Move> future = moveExecutor.submit(() -> {
+			if (!quiet) {
+				System.out.println("getting move");
+			}
+			return p.getMove(position.toGameState(), deadline);
+		});
+		Move m = null;
+		boolean late = false;
+		try {
+			m = future.get(time, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			late = true;
+			System.out.println("Player took too long! " + p);
+		} catch (ExecutionException e) {
+			System.out.println(p + " failed to make a move");
+			e.getCause().printStackTrace();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+		}
+		timing.record(System.currentTimeMillis() - start, late);
+		PrintStream reports = reports();
+		if (SearchStats.ENABLED && m != null && reports != null) {
+			SearchReport r = p.getSearchReport();
+			if (r != null) {
+				reports.println(r.toString(reportFormat, moveNumber));
+			}
+		}
+		if (m == null || !g.isLegalMove(m)) {
+			fallbackMove = true;
+			System.out.println("Making random move...");
+			m = randomPlayer.getMove(g, deadline);
+		}
+		return m;
+	}
+
+	// the number of games left out of the game records because a move was made for a player
+	public int getUnrecordedGames() {
+		return unrecordedGames;
+	}
 
-		MancalaPlayer p;
-		GameState g;
-		int time;
-		Move m=null;
+	// turn off printing of the board and moves, for running many games
+	public void setQuiet(boolean quiet) {
+		this.quiet = quiet;
+	}
 
-		public GameThread(MancalaPlayer p, GameState g, int time) {
-			this.p = p;
-			this.g = g;
-			this.time = time;
-		}
+	// send search reports to out in the given format, out null turns them off
+	// reports are only collected when the program runs with -Dmancala.stats=true
+	public void setSearchReports(PrintStream out, SearchReport.Format format) {
+		reportStream = out;
+		reportFormat = format;
+		reportsSet = true;
+	}
 
-		@Override
-		public void run() {
-			System.out.println("getting move");
-			m = p.getMove(g, System.currentTimeMillis() + time);
+	// the stream for search reports, null if nobody wants them
+	private PrintStream reports() {
+		return reportsSet || !quiet ? reportStream : null;
+	}
 
-		}
+	// record every finished game in records, null turns recording off
+	// games in which a move had to be made for a player are left out
+	// the writer is not closed here, so one writer can collect many games
+	public void setGameRecords(GameRecordWriter records) {
+		this.records = records;
+	}
+
+	// timing of the player that went first in the constructor
+	public MoveTiming getP1Timing() {
+		return p1Timing;
+	}
 
+	// timing of the player that went second in the constructor
+	public MoveTiming getP2Timing() {
+		return p2Timing;
 	}
 }
@@ -6,13 +6,16 @@
  * @version Sept 9, 2020
  */
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 public class MancalaCageMatch {
 
 	Random myRandom = new Random();
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 		RandomPlayer rp = new RandomPlayer();
 		HumanMancalaPlayer hu = new HumanMancalaPlayer();
 		MiniMaxPlayer mm = new MiniMaxPlayer();
@@ -26,11 +29,22 @@ public class MancalaCageMatch {
 		mcm.addPlayer(nrp);
 		mcm.addPlayer(omp);
 		mcm.runGames();
+		// mcm.setRatingService(new RatingService("ratings.dat"));
+		// mcm.runTournament(1000, 0.95, 1000);
 
 	}
 
 	ArrayList<SortablePlayer> thePlayers;
 
+	// optional ratings updated after every tournament game
+	RatingService ratings;
+
+	// optional file every game is recorded in
+	GameRecordWriter records;
+
+	// matches of each pairing currently being played by runTournament
+	private int[] inFlight;
+
 	public MancalaCageMatch() {
 		thePlayers = new ArrayList<>();
 	}
@@ -44,8 +58,10 @@ public class MancalaCageMatch {
 					SortablePlayer sp2 = thePlayers.get(j);
 					System.out.println(sp1.myPlayer + " versus " + sp2.myPlayer);
 					Mancala m = new Mancala(sp1.myPlayer, sp2.myPlayer, 7, 4, 1000);
+					m.setGameRecords(records);
 					long p1FirstScore = m.playGame();
 					m = new Mancala(sp2.myPlayer, sp1.myPlayer, 7, 4, 1000);
+					m.setGameRecords(records);
 					long p2FirstScore = m.playGame();
 					long totalScore = p1FirstScore - p2FirstScore;
 					sp1.gamesPlayed++;
@@ -81,21 +97,333 @@ public class MancalaCageMatch {
 		}
 	}
 
+	/**
+	 * Plays matches between every pair of players on a pool of threads, one
+	 * per core, without printing the games. Every match is two games, one
+	 * with each player going first. A player added with a factory gets a
+	 * new instance for every match, so matches of it run side by side. A
+	 * player added as an instance plays its matches one at a time, so it
+	 * never plays two games at once.
+	 *
+	 * @maxMatches stop after this many matches
+	 * @confidence stop early when the leader's winning percentage is better
+	 * than every other player's at this confidence, e.g. 0.95, or 0 to
+	 * always play maxMatches
+	 * @time ms per move
+	 */
+	public void runTournament(int maxMatches, double confidence, int time) {
+		List<int[]> pairings = new ArrayList<>();
+		for (int i = 0; i < thePlayers.size(); ++i) {
+			for (int j = i + 1; j < thePlayers.size(); ++j) {
+				pairings.add(new int[] { i, j });
+			}
+		}
+		if (pairings.isEmpty()) {
+			return;
+		}
+		inFlight = new int[pairings.size()];
+		int threads = Runtime.getRuntime().availableProcessors();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CompletionService<Void> done = new ExecutorCompletionService<>(pool);
+		List<SortablePlayer> players = new ArrayList<>(thePlayers);
+		int submitted = 0;
+		int finished = 0;
+		stopped = false;
+		matchesPlayed = 0;
+		try {
+			// keep a few matches queued per thread so no thread waits for work
+			while (submitted < maxMatches && submitted < threads * 2) {
+				submitMatch(done, players, pairings, nextPairing(players, pairings, submitted), time);
+				submitted++;
+			}
+			while (finished < submitted) {
+				done.take().get();
+				finished++;
+				if (finished % pairings.size() == 0) {
+					printStandings();
+				}
+				if (confidence > 0 && isDecided(confidence)) {
+					break;
+				}
+				if (submitted < maxMatches) {
+					submitMatch(done, players, pairings, nextPairing(players, pairings, submitted), time);
+					submitted++;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+		} finally {
+			// matches still running are interrupted and their results ignored
+			stopped = true;
+			pool.shutdownNow();
+			// an interrupted game finishes quickly on random moves, which keeps it out of the records,
+			// but a game that ended just before the interrupt is still being added, wait for it before flushing
+			try {
+				while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		System.out.println("Played " + matchesPlayed + " matches");
+		printStandings();
+		if (records != null) {
+			try {
+				records.flush();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		if (ratings != null) {
+			ratings.printLeaderboard(getNames());
+			try {
+				ratings.save();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * The index of the pairing to play next. Without ratings the pairings
+	 * take turns. With ratings the pairing whose game is expected to tell
+	 * us the most is chosen, discounted by the matches of it already running.
+	 */
+	private synchronized int nextPairing(List<SortablePlayer> players, List<int[]> pairings, int submitted) {
+		if (ratings == null) {
+			return submitted % pairings.size();
+		}
+		int best = 0;
+		double bestInformation = -1;
+		for (int k = 0; k < pairings.size(); ++k) {
+			String a = players.get(pairings.get(k)[0]).id;
+			String b = players.get(pairings.get(k)[1]).id;
+			double information = ratings.information(a, b) / (1 + inFlight[k]);
+			if (information > bestInformation) {
+				bestInformation = information;
+				best = k;
+			}
+		}
+		return best;
+	}
+
+	private void submitMatch(CompletionService<Void> done, List<SortablePlayer> players, List<int[]> pairings,
+			int pairing, int time) {
+		SortablePlayer sp1 = players.get(pairings.get(pairing)[0]);
+		SortablePlayer sp2 = players.get(pairings.get(pairing)[1]);
+		synchronized (this) {
+			inFlight[pairing]++;
+		}
+		done.submit(() -> {
+			long p1FirstScore;
+			long p2FirstScore;
+			// pairings list the lower index first, so the locks are always taken in the same order
+			synchronized (sp1.lockFor()) {
+				synchronized (sp2.lockFor()) {
+					MancalaPlayer p1 = sp1.newPlayer();
+					MancalaPlayer p2 = sp2.newPlayer();
+					try {
+						Mancala m = new Mancala(p1, p2, 7, 4, time);
+						m.setQuiet(true);
+						m.setGameRecords(records);
+						p1FirstScore = m.playGame(true);
+						if (stopped) {
+							// the result would be ignored, and the game would only be random moves
+							return null;
+						}
+						p2FirstScore = m.playGame(false);
+					} finally {
+						sp1.release(p1);
+						sp2.release(p2);
+					}
+				}
+			}
+			recordMatch(sp1, sp2, p1FirstScore, p2FirstScore);
+			synchronized (this) {
+				inFlight[pairing]--;
+			}
+			return null;
+		});
+	}
+
+	// add the result of a match, the scores are for the bottom player of each game
+	private synchronized void recordMatch(SortablePlayer sp1, SortablePlayer sp2, long p1FirstScore,
+			long p2FirstScore) {
+		if (stopped) {
+			return;
+		}
+		matchesPlayed++;
+		if (ratings != null) {
+			ratings.recordGame(sp1.id, sp2.id, gameScore(p1FirstScore));
+			ratings.recordGame(sp1.id, sp2.id, gameScore(-p2FirstScore));
+		}
+		long totalScore = p1FirstScore - p2FirstScore;
+		sp1.gamesPlayed++;
+		sp2.gamesPlayed++;
+		if (totalScore > 0) {
+			sp1.wins++;
+		} else if (totalScore == 0) {
+			sp1.wins += .5;
+			sp2.wins += .5;
+		} else {
+			sp2.wins++;
+		}
+	}
+
+	private synchronized void printStandings() {
+		Collections.sort(thePlayers);
+		System.out.println("w%\twins\tgames\tname");
+		for (int k = 0; k < thePlayers.size(); ++k) {
+			System.out.println(thePlayers.get(k));
+		}
+	}
+
+	// 1 for a win, 0 for a loss and .5 for a tie
+	private static double gameScore(long netScore) {
+		return netScore > 0 ? 1 : netScore < 0 ? 0 : .5;
+	}
+
+	private synchronized List<String> getNames() {
+		List<String> names = new ArrayList<>();
+		for (SortablePlayer sp : thePlayers) {
+			names.add(sp.id);
+		}
+		return names;
+	}
+
+	// use ratings to pick pairings and decide when runTournament can stop
+	public void setRatingService(RatingService ratings) {
+		this.ratings = ratings;
+	}
+
+	// record every game played in records, which the caller closes when done
+	public void setGameRecords(GameRecordWriter records) {
+		this.records = records;
+	}
+
+	// true if the leader is known to be better than everyone else at this confidence
+	private synchronized boolean isDecided(double confidence) {
+		if (thePlayers.size() < 2) {
+			return true;
+		}
+		double z = zScore(confidence);
+		if (ratings != null) {
+			return ratings.isLeaderDecided(getNames(), z);
+		}
+		Collections.sort(thePlayers);
+		SortablePlayer leader = thePlayers.get(0);
+		if (leader.gamesPlayed < MIN_MATCHES_TO_DECIDE) {
+			return false;
+		}
+		double leaderLow = leader.getInterval(-z);
+		for (int k = 1; k < thePlayers.size(); ++k) {
+			SortablePlayer other = thePlayers.get(k);
+			if (other.gamesPlayed < MIN_MATCHES_TO_DECIDE || other.getInterval(z) >= leaderLow) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// the two sided normal critical value for a confidence level, e.g. 1.96 for 0.95
+	static double zScore(double confidence) {
+		// Abramowitz and Stegun 26.2.23
+		double p = (1 - confidence) / 2;
+		double t = Math.sqrt(-2 * Math.log(p));
+		return t - (2.515517 + 0.802853 * t + 0.010328 * t * t) / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+	}
+
+	// add a player that plays all its games itself, one at a time in runTournament, the caller closes it
 	public void addPlayer(MancalaPlayer p) {
-		thePlayers.add(new SortablePlayer(p));
+		thePlayers.add(new SortablePlayer(p, null, uniqueId(p)));
 	}
 
+	// add a player whose matches in runTournament each use a new player from factory, closed after the match
+	public void addPlayer(Supplier<MancalaPlayer> factory) {
+		MancalaPlayer p = factory.get();
+		thePlayers.add(new SortablePlayer(p, factory, uniqueId(p)));
+	}
+
+	/**
+	 * The player's name, with " #2", " #3", ... after it if players with
+	 * that name were added before. Ratings are kept by this id, so two
+	 * players that differ only in their settings are rated separately.
+	 * The same players added in the same order get the same ids, so saved
+	 * ratings still match them.
+	 */
+	private String uniqueId(MancalaPlayer p) {
+		String name = String.valueOf(p);
+		String id = name;
+		for (int n = 2; hasId(id); ++n) {
+			id = name + " #" + n;
+		}
+		return id;
+	}
+
+	private boolean hasId(String id) {
+		for (SortablePlayer sp : thePlayers) {
+			if (sp.id.equals(id)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// set when runTournament is done, so unfinished matches are not counted
+	private volatile boolean stopped;
+
+	// matches recorded by the current runTournament
+	private int matchesPlayed;
+
+	// matches the leader and the others must have played before runTournament can stop early
+	static final int MIN_MATCHES_TO_DECIDE = 20;
+
 	private class SortablePlayer implements Comparable<SortablePlayer> {
 		double gamesPlayed;
 		double wins;
 		MancalaPlayer myPlayer;
+		// unique among the entrants, the key of this player's rating
+		final String id;
+		// makes a player for each match, null to play every match with myPlayer
+		Supplier<MancalaPlayer> factory;
+		// held while a match of myPlayer is played, when there is no factory
+		private final Object gameLock = new Object();
 
-		public SortablePlayer(MancalaPlayer p) {
+		public SortablePlayer(MancalaPlayer p, Supplier<MancalaPlayer> factory, String id) {
 			myPlayer = p;
+			this.factory = factory;
+			this.id = id;
 			gamesPlayed = 0;
 			wins = 0;
 		}
 
+		// the lock to hold for a match: the shared one if myPlayer plays it, otherwise one nobody else holds
+		Object lockFor() {
+			return factory == null ? gameLock : new Object();
+		}
+
+		MancalaPlayer newPlayer() {
+			return factory == null ? myPlayer : factory.get();
+		}
+
+		// close p if it was made for one match, the caller closes players it added itself
+		void release(MancalaPlayer p) {
+			if (p != myPlayer) {
+				p.close();
+			}
+		}
+
+		// Wilson score bound on the winning percentage, z < 0 for the lower bound
+		double getInterval(double z) {
+			double n = gamesPlayed;
+			double p = getWinningPct();
+			double center = p + z * z / (2 * n);
+			double spread = z * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n));
+			return (center + spread) / (1 + z * z / n);
+		}
+
 		double getWinningPct() {
 			if (gamesPlayed == 0) {
 				return 0;
@@ -106,18 +434,13 @@ public class MancalaCageMatch {
 		}
 
 		public String toString() {
-			return String.format("%.2f", getWinningPct()) + "\t" + wins + "\t" + gamesPlayed + "\t" + myPlayer;
+			return String.format("%.2f", getWinningPct()) + "\t" + wins + "\t" + gamesPlayed + "\t" + id;
 		}
 
 		@Override
 		public int compareTo(SortablePlayer o) {
-			double winPct = getWinningPct();
-			double oWinPct = o.getWinningPct();
-			if (winPct > oWinPct) {
-				return -1;
-			} else {
-				return 1;
-			}
+			// highest first, ties keep their order since the sort is stable
+			return Double.compare(o.getWinningPct(), getWinningPct());
 		}
 	}
 }
@@ -10,6 +10,20 @@ public abstract class MancalaPlayer {
 
 	boolean verbose;
 	String name;
+	// optional table shared by searches, null if the player does not use one
+	TranspositionTable table;
+	// optional exact values for positions with few stones left
+	EndgameTablebase tablebase;
+	// optional precomputed moves for the start of the game
+	OpeningBook book;
+	// optional static evaluation for searches, null for currentScore()
+	Evaluator evaluator;
+	// what the last search did, set by players that report when SearchStats.ENABLED
+	SearchReport report;
+	// budgets the time before each deadline, made by getTimeManager for players that use it
+	private TimeManager timeManager;
+	// true if the player may search on the opponent's time, for players that can
+	boolean pondering;
 	/**
 	 * 
 	 * @g the GameState to make a move
@@ -23,6 +37,105 @@ public abstract class MancalaPlayer {
     }
 
  
+    /**
+     * Gives this player a transposition table to use in its searches.
+     * Players that do not search ignore it.
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns this player's transposition table, or null if it has none.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Gives this player exact values for positions with few stones left.
+     * Players that do not search ignore it.
+     */
+    public void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Gives this player a static evaluation to use instead of currentScore().
+     * Players that do not search ignore it.
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Gives this player precomputed moves for the first plies of a game.
+     * Players that do not search ignore it.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Returns the book move for g, or null if there is no book or g is not in it.
+     */
+    protected Move bookMove(GameState g) {
+        if (book == null) {
+            return null;
+        }
+        int location = book.probe(g);
+        return location < 0 ? null : Move.of(location);
+    }
+
+    /**
+     * Returns the time manager that budgets this player's moves, with
+     * statistics of the time budgeted and used.
+     */
+    public synchronized TimeManager getTimeManager() {
+        if (timeManager == null) {
+            timeManager = new TimeManager();
+        }
+        return timeManager;
+    }
+
+    /**
+     * Lets this player think while the opponent is moving. Players that
+     * cannot ponder ignore it.
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+    }
+
+    /**
+     * Called after this player's move when g, with the opponent to move,
+     * is the position the opponent has to answer. A player that ponders
+     * may search on until its next getMove or stopPondering, and must
+     * not change g.
+     */
+    public void ponder(GameState g) {
+    }
+
+    /**
+     * Stops any search started by ponder and waits for it to finish.
+     */
+    public void stopPondering() {
+    }
+
+    /**
+     * Releases the threads and other resources this player holds. The
+     * player must not be asked for moves afterwards.
+     */
+    public void close() {
+    }
+
+    /**
+     * Returns the report of the last move's search, or null if this player
+     * does not make reports or SearchStats.ENABLED is off.
+     */
+    public SearchReport getSearchReport() {
+        return report;
+    }
+
     /**
      * Returns the name of this player.
      */
@@ -0,0 +1,654 @@
+/**
+ * Computes the exact value of a Mancala position with perfect play from
+ * both sides, and a line of play that achieves it.
+ *
+ * The search is a complete alpha-beta with no depth limit, driven by
+ * MTD(f): a series of null window searches, each of which proves the value
+ * is at least or below some bound, until the bounds meet. The first guess
+ * comes from a depth limited IterativeDeepeningPlayer search.
+ *
+ * What happens for the rest of a game depends only on the pits and whose
+ * turn it is (see EndgameTablebase), so the transposition table is keyed
+ * by those alone and stores values relative to the score buckets. Two
+ * positions that differ only in how the stones already scored were split
+ * share an entry. Positions with few enough stones left are looked up in
+ * an optional EndgameTablebase instead of searched.
+ *
+ * Nodes near the root are split between threads on a ForkJoinPool in the
+ * same Young Brothers Wait way as ForkJoinAlphaBetaPlayer, and idle
+ * threads steal the younger brothers. Below splitPly each task searches
+ * serially with its own MoveOrdering.
+ *
+ * A solve can take hours, so every bound proven within checkpointPly of
+ * the root is also appended to a checkpoint file. Each thread collects
+ * its entries in a buffer of its own and appends them a buffer at a time,
+ * and every buffer is written out and the file forced to disk at the end
+ * of each pass. Solving the same
+ * position with the same file again loads those bounds into the table
+ * first, and the search skips straight past everything already proven.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MancalaSolver {
+
+	// the cut-off flag of a split node is checked when a task's node count is a multiple of this
+	static final int CHECK_INTERVAL = 1024;
+
+	private static final int CHECKPOINT_MAGIC = 0x4D534C56;
+	// magic, board length, total pieces, key of the position being solved
+	private static final int HEADER_BYTES = 20;
+	// key, value, bound, move, padding
+	private static final int ENTRY_BYTES = 16;
+	// entries each thread collects before appending them to the checkpoint
+	private static final int BUFFER_ENTRIES = 4096;
+
+	// table depth of entries loaded from a checkpoint, deeper than any
+	// search stores, so the DEPTH policy never replaces them with another position
+	private static final int PINNED = 255;
+
+	// nodes nearer the root than this are split between threads
+	int splitPly = 6;
+
+	// finished nodes nearer the root than this are written to the checkpoint
+	int checkpointPly = 10;
+
+	// depth of the search that makes the first guess
+	int guessDepth = 12;
+
+	boolean verbose;
+
+	final ForkJoinPool pool;
+	final TranspositionTable table;
+	EndgameTablebase tablebase;
+
+	// the checkpoint of the solve in progress, null if there is none
+	private FileChannel checkpoint;
+
+	// every thread's checkpoint buffer, so the end of a pass can write them all
+	private final List<CheckpointBuffer> checkpointBuffers = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<CheckpointBuffer> checkpointBuffer = ThreadLocal.withInitial(() -> {
+		CheckpointBuffer b = new CheckpointBuffer();
+		checkpointBuffers.add(b);
+		return b;
+	});
+
+	// each worker orders its serial searches with its own history and killers
+	private final ThreadLocal<MoveOrdering> orderings = ThreadLocal
+			.withInitial(() -> new MoveOrdering(IterativeDeepeningPlayer.MAX_PLY));
+
+	// statistics for the current solve, added to by every task
+	final LongAdder nodes = new LongAdder();
+	final LongAdder tableHits = new LongAdder();
+	final LongAdder tablebaseHits = new LongAdder();
+	final LongAdder checkpointWrites = new LongAdder();
+
+	public MancalaSolver() {
+		this(Runtime.getRuntime().availableProcessors(), 24);
+	}
+
+	/**
+	 * @threads the number of threads to search with
+	 * @tableSizeLog2 the transposition table holds 2^tableSizeLog2 entries of 16 bytes
+	 */
+	public MancalaSolver(int threads, int tableSizeLog2) {
+		pool = new ForkJoinPool(threads);
+		table = new TranspositionTable(tableSizeLog2, TranspositionTable.Replacement.DEPTH);
+	}
+
+	// look up positions with few stones left in tablebase instead of searching them, null for none
+	public void setTablebase(EndgameTablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+
+	public void setVerbosity(boolean verbose) {
+		this.verbose = verbose;
+	}
+
+	/**
+	 * The value of a position with perfect play, a line that achieves it,
+	 * and what it took to find them.
+	 */
+	public static class Solution {
+		// the final net score, >0 means bottom wins
+		public final int value;
+		// the locations played, starting from the solved position
+		public final int[] line;
+		public final long nodes;
+		public final long nanos;
+		public final int passes;
+		public final long tableHits;
+		public final long tablebaseHits;
+		public final long checkpointLoaded;
+		public final long checkpointWritten;
+
+		Solution(int value, int[] line, long nodes, long nanos, int passes, long tableHits, long tablebaseHits,
+				long checkpointLoaded, long checkpointWritten) {
+			this.value = value;
+			this.line = line;
+			this.nodes = nodes;
+			this.nanos = nanos;
+			this.passes = passes;
+			this.tableHits = tableHits;
+			this.tablebaseHits = tablebaseHits;
+			this.checkpointLoaded = checkpointLoaded;
+			this.checkpointWritten = checkpointWritten;
+		}
+
+		public String toString() {
+			StringBuilder s = new StringBuilder();
+			s.append("value ").append(value).append(value > 0 ? " (bottom wins)" : value < 0 ? " (top wins)" : " (tie)");
+			s.append("\nline");
+			for (int m : line) {
+				s.append(' ').append(m);
+			}
+			double seconds = nanos / 1e9;
+			s.append("\n").append(nodes).append(" nodes in ").append(String.format("%.1f", seconds)).append(" s (")
+					.append(String.format("%.0f", nodes / Math.max(seconds, 1e-9) / 1000)).append(" knodes/s), ")
+					.append(passes).append(" passes, ").append(tableHits).append(" table hits, ")
+					.append(tablebaseHits).append(" tablebase hits, checkpoint entries ").append(checkpointLoaded)
+					.append(" loaded ").append(checkpointWritten).append(" written");
+			return s.toString();
+		}
+	}
+
+	/**
+	 * Solve g.
+	 *
+	 * @checkpointFile where to record progress and resume from, or null for no checkpoint
+	 */
+	public Solution solve(GameState g, String checkpointFile) throws IOException {
+		long begin = System.nanoTime();
+		nodes.reset();
+		tableHits.reset();
+		tablebaseHits.reset();
+		checkpointWrites.reset();
+		PackedGameState root = new PackedGameState(g);
+		// sets up the keys for this geometry before anything is stored
+		table.hashPits(root);
+		long loaded = 0;
+		// entries left over from a solve that failed belong to its checkpoint, not this one
+		for (CheckpointBuffer b : checkpointBuffers) {
+			b.discard();
+		}
+		if (checkpointFile != null) {
+			loaded = openCheckpoint(Paths.get(checkpointFile), root);
+		}
+		int passes = 0;
+		int value;
+		int[] line;
+		try {
+			int lower = Integer.MIN_VALUE / 2;
+			int upper = Integer.MAX_VALUE / 2;
+			value = guess(g);
+			while (lower < upper) {
+				int beta = Math.max(value, lower + 1);
+				value = test(root, beta);
+				passes++;
+				if (value < beta) {
+					upper = value;
+				} else {
+					lower = value;
+				}
+				if (checkpoint != null) {
+					writeCheckpoint();
+					checkpoint.force(false);
+				}
+				if (verbose) {
+					System.out.println("pass " + passes + ": value in [" + lower + ", " + upper + "], " + nodes.sum()
+							+ " nodes, " + (System.nanoTime() - begin) / 1000000 + " ms");
+				}
+			}
+			line = principalLine(root, value);
+		} finally {
+			if (checkpoint != null) {
+				try {
+					writeCheckpoint();
+				} finally {
+					checkpoint.close();
+					checkpoint = null;
+				}
+			}
+		}
+		int bottomValue = root.getTurn() ? value : -value;
+		return new Solution(bottomValue, line, nodes.sum(), System.nanoTime() - begin, passes, tableHits.sum(),
+				tablebaseHits.sum(), loaded, checkpointWrites.sum());
+	}
+
+	// a first guess at the value of g for the player to move, from a depth limited search
+	private int guess(GameState g) {
+		if (g.isGameOver() || guessDepth <= 0) {
+			return 0;
+		}
+		IterativeDeepeningPlayer p = new IterativeDeepeningPlayer();
+		p.maxDepth = guessDepth;
+		p.setTablebase(tablebase);
+		p.startSearch(g, Long.MAX_VALUE / 2);
+		p.deepen(1, 1);
+		return (int) Math.round(p.getBestScore());
+	}
+
+	/**
+	 * A null window search of s around beta, for the player to move.
+	 *
+	 * @return the value if it is below beta, or a lower bound on it that is at least beta
+	 */
+	private int test(PackedGameState s, int beta) {
+		return pool.invoke(new SolveTask(new PackedGameState(s), beta - 1, beta, 0, null, false));
+	}
+
+	/**
+	 * Follow moves that keep the value from root to the end of the game.
+	 * value is the exact value of root for the player to move.
+	 */
+	private int[] principalLine(PackedGameState root, int value) {
+		PackedGameState s = new PackedGameState(root);
+		int[] line = new int[16];
+		int length = 0;
+		while (!s.isGameOver()) {
+			boolean bottomTurn = s.getTurn();
+			int found = -1;
+			for (long legal = s.getLegalMoveMask(); legal != 0 && found < 0; legal &= legal - 1) {
+				int m = Long.numberOfTrailingZeros(legal);
+				s.make(m);
+				// the value of a position is the best of its children, so a child
+				// keeps it if it does at least as well for the player who moved
+				if (s.getTurn() == bottomTurn) {
+					if (test(s, value) >= value) {
+						found = m;
+					}
+				} else if (test(s, -value + 1) <= -value) {
+					found = m;
+					value = -value;
+				}
+				if (found < 0) {
+					s.unmake();
+				}
+			}
+			if (found < 0) {
+				throw new IllegalStateException("no move keeps the value " + value);
+			}
+			if (length == line.length) {
+				line = java.util.Arrays.copyOf(line, length * 2);
+			}
+			line[length++] = found;
+		}
+		return java.util.Arrays.copyOf(line, length);
+	}
+
+	/**
+	 * Open or create the checkpoint for root and load what it has proven
+	 * into the table.
+	 *
+	 * @return the number of entries loaded
+	 */
+	private long openCheckpoint(Path path, PackedGameState root) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(CHECKPOINT_MAGIC).putInt(root.getBoardLength()).putInt((int) root.getTotalPieces())
+					.putLong(table.hash(root)).flip();
+			if (channel.size() < HEADER_BYTES) {
+				channel.truncate(0);
+				while (header.hasRemaining()) {
+					channel.write(header, header.position());
+				}
+				channel.position(HEADER_BYTES);
+				checkpoint = channel;
+				return 0;
+			}
+			ByteBuffer old = ByteBuffer.allocate(HEADER_BYTES);
+			channel.read(old, 0);
+			if (!old.flip().equals(header)) {
+				throw new IOException(path + " is a checkpoint for a different position");
+			}
+			// drop a partly written last entry
+			long entries = (channel.size() - HEADER_BYTES) / ENTRY_BYTES;
+			channel.truncate(HEADER_BYTES + entries * ENTRY_BYTES);
+			MappedByteBuffer all = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, entries * ENTRY_BYTES);
+			for (int i = 0; i < entries; ++i) {
+				int at = i * ENTRY_BYTES;
+				table.store(all.getLong(at), PINNED, all.get(at + 12), all.getInt(at + 8), all.get(at + 13));
+			}
+			channel.position(HEADER_BYTES + entries * ENTRY_BYTES);
+			checkpoint = channel;
+			return entries;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	// add a proven bound to this thread's checkpoint buffer
+	private void record(long key, int bound, int value, int move) {
+		checkpointBuffer.get().add(key, bound, value, move);
+		checkpointWrites.increment();
+	}
+
+	// append every thread's buffered entries to the checkpoint, called between passes
+	private void writeCheckpoint() {
+		for (CheckpointBuffer b : checkpointBuffers) {
+			b.write();
+		}
+	}
+
+	/**
+	 * One thread's proven bounds waiting to be appended to the checkpoint.
+	 * Only its own thread adds to it, the lock is for the end of a pass.
+	 */
+	private class CheckpointBuffer {
+		private final ByteBuffer entries = ByteBuffer.allocate(BUFFER_ENTRIES * ENTRY_BYTES);
+
+		synchronized void add(long key, int bound, int value, int move) {
+			entries.putLong(key).putInt(value).put((byte) bound).put((byte) move).putShort((short) 0);
+			if (!entries.hasRemaining()) {
+				write();
+			}
+		}
+
+		synchronized void write() {
+			entries.flip();
+			try {
+				synchronized (checkpoint) {
+					while (entries.hasRemaining()) {
+						checkpoint.write(entries);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				entries.clear();
+			}
+		}
+
+		synchronized void discard() {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Solves one node with a fail-soft negamax alpha-beta. The value is for
+	 * the player to move in state.
+	 */
+	class SolveTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		final PackedGameState state;
+		final int alpha, beta;
+		final int ply;
+		// the node this is a child of, null at the root
+		final ForkJoinAlphaBetaPlayer.Split parent;
+		// when this child's value, as seen by the parent, reaches parentBeta the parent is cut off
+		final boolean sameSide;
+		int parentBeta = Integer.MAX_VALUE;
+
+		// true if the task stopped because its parent was cut off, so its value means nothing
+		boolean interrupted;
+		long nodeCount, hits, tablebaseCount;
+
+		// moves at each ply of the serial search
+		private int[][] moveBuffer = new int[0][];
+
+		SolveTask(PackedGameState state, int alpha, int beta, int ply, ForkJoinAlphaBetaPlayer.Split parent,
+				boolean sameSide) {
+			this.state = state;
+			this.alpha = alpha;
+			this.beta = beta;
+			this.ply = ply;
+			this.parent = parent;
+			this.sameSide = sameSide;
+		}
+
+		@Override
+		protected Integer compute() {
+			int value = ply < splitPly ? split(new ForkJoinAlphaBetaPlayer.Split(parent), alpha, beta)
+					: search(alpha, beta, ply);
+			nodes.add(nodeCount);
+			tableHits.add(hits);
+			tablebaseHits.add(tablebaseCount);
+			if (!interrupted && parent != null && (sameSide ? value : -value) >= parentBeta) {
+				parent.cutoff = true;
+			}
+			return value;
+		}
+
+		// true if the search should stop
+		private boolean stopped() {
+			if (parent != null && parent.isCut()) {
+				interrupted = true;
+			}
+			return interrupted;
+		}
+
+		/**
+		 * Search the first child here, then fork the rest.
+		 */
+		private int split(ForkJoinAlphaBetaPlayer.Split node, int alpha, int beta) {
+			nodeCount++;
+			if (stopped()) {
+				return 0;
+			}
+			boolean bottomTurn = state.getTurn();
+			int sign = bottomTurn ? 1 : -1;
+			if (state.isGameOver()) {
+				return sign * (int) state.getFinalNetScore();
+			}
+			if (tablebase != null) {
+				int v = tablebase.probe(state);
+				if (v != EndgameTablebase.NOT_FOUND) {
+					tablebaseCount++;
+					return sign * v;
+				}
+			}
+			int offset = sign * (state.getCount(state.bottomScore) - state.getCount(state.topScore));
+			long key = table.hashPits(state);
+			long data = table.probe(key);
+			int tableMove = -1;
+			if (data != 0) {
+				int v = (int) TranspositionTable.value(data) + offset;
+				if (isCutoff(data, v, alpha, beta)) {
+					hits++;
+					return v;
+				}
+				tableMove = TranspositionTable.move(data);
+			}
+			int[] moves = new int[state.getBoardLength()];
+			int count = order(state, tableMove, ply, moves);
+
+			// the eldest brother
+			int first = moves[0];
+			state.make(first);
+			boolean same = state.getTurn() == bottomTurn;
+			SolveTask eldest = same ? new SolveTask(state, alpha, beta, ply + 1, node, true)
+					: new SolveTask(state, -beta, -alpha, ply + 1, node, false);
+			int best = eldest.invoke();
+			state.unmake();
+			if (stopped() || eldest.interrupted) {
+				interrupted = true;
+				return 0;
+			}
+			if (!same) {
+				best = -best;
+			}
+			int bestMove = first;
+			int a = Math.max(alpha, best);
+
+			// the younger brothers, in parallel
+			if (a < beta && count > 1) {
+				SolveTask[] brothers = new SolveTask[count - 1];
+				for (int i = 1; i < count; ++i) {
+					PackedGameState child = new PackedGameState(state);
+					child.make(moves[i]);
+					same = child.getTurn() == bottomTurn;
+					SolveTask t = same ? new SolveTask(child, a, beta, ply + 1, node, true)
+							: new SolveTask(child, -beta, -a, ply + 1, node, false);
+					t.parentBeta = beta;
+					brothers[i - 1] = t;
+				}
+				invokeAll(brothers);
+				if (stopped()) {
+					return 0;
+				}
+				for (int i = 0; i < brothers.length; ++i) {
+					// brothers stopped by a cutoff here leave a bound at least beta from another brother
+					if (brothers[i].interrupted) {
+						continue;
+					}
+					int value = brothers[i].getRawResult();
+					if (!brothers[i].sameSide) {
+						value = -value;
+					}
+					if (value > best) {
+						best = value;
+						bestMove = moves[i + 1];
+					}
+				}
+			}
+			int bound = best <= alpha ? TranspositionTable.UPPER
+					: best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+			table.store(key, stonesInPits(state), bound, best - offset, bestMove);
+			if (checkpoint != null && ply < checkpointPly) {
+				record(key, bound, best - offset, bestMove);
+			}
+			return best;
+		}
+
+		/**
+		 * Serial search below the split nodes.
+		 */
+		private int search(int alpha, int beta, int ply) {
+			if ((++nodeCount & (CHECK_INTERVAL - 1)) == 0) {
+				stopped();
+			}
+			if (interrupted) {
+				return 0;
+			}
+			boolean bottomTurn = state.getTurn();
+			int sign = bottomTurn ? 1 : -1;
+			if (state.isGameOver()) {
+				return sign * (int) state.getFinalNetScore();
+			}
+			if (tablebase != null) {
+				int v = tablebase.probe(state);
+				if (v != EndgameTablebase.NOT_FOUND) {
+					tablebaseCount++;
+					return sign * v;
+				}
+			}
+			int offset = sign * (state.getCount(state.bottomScore) - state.getCount(state.topScore));
+			long key = table.hashPits(state);
+			long data = table.probe(key);
+			int tableMove = -1;
+			if (data != 0) {
+				int v = (int) TranspositionTable.value(data) + offset;
+				if (isCutoff(data, v, alpha, beta)) {
+					hits++;
+					return v;
+				}
+				tableMove = TranspositionTable.move(data);
+			}
+			if (ply >= moveBuffer.length) {
+				moveBuffer = java.util.Arrays.copyOf(moveBuffer, ply + 16);
+			}
+			if (moveBuffer[ply] == null) {
+				moveBuffer[ply] = new int[state.getBoardLength()];
+			}
+			int[] moves = moveBuffer[ply];
+			int count = order(state, tableMove, ply, moves);
+			int best = Integer.MIN_VALUE;
+			int bestMove = -1;
+			int a = alpha;
+			for (int i = 0; i < count; ++i) {
+				int m = moves[i];
+				state.make(m);
+				int value = state.getTurn() == bottomTurn ? search(a, beta, ply + 1) : -search(-beta, -a, ply + 1);
+				state.unmake();
+				if (interrupted) {
+					return 0;
+				}
+				if (value > best) {
+					best = value;
+					bestMove = m;
+					if (value > a) {
+						a = value;
+						if (a >= beta) {
+							if (ply < IterativeDeepeningPlayer.MAX_PLY) {
+								orderings.get().cutoff(m, ply, stonesInPits(state));
+							}
+							break;
+						}
+					}
+				}
+			}
+			int bound = best <= alpha ? TranspositionTable.UPPER
+					: best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+			table.store(key, stonesInPits(state), bound, best - offset, bestMove);
+			if (checkpoint != null && ply < checkpointPly) {
+				record(key, bound, best - offset, bestMove);
+			}
+			return best;
+		}
+	}
+
+	// true if a table entry with value v settles a search with this window
+	private static boolean isCutoff(long data, int v, int alpha, int beta) {
+		int bound = TranspositionTable.bound(data);
+		return bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && v >= beta)
+				|| (bound == TranspositionTable.UPPER && v <= alpha);
+	}
+
+	// the table move first, then the others as MoveOrdering ranks them
+	private int order(PackedGameState s, int tableMove, int ply, int[] moves) {
+		long legal = s.getLegalMoveMask();
+		int count = 0;
+		if (tableMove >= 0 && (legal & 1L << tableMove) != 0) {
+			moves[count++] = tableMove;
+			legal &= ~(1L << tableMove);
+		}
+		return orderings.get().order(s, legal, Math.min(ply, IterativeDeepeningPlayer.MAX_PLY), moves, count);
+	}
+
+	// the stones still in play, a measure of how much work a position's value took
+	private static int stonesInPits(PackedGameState s) {
+		return (int) Math.min(PINNED - 1,
+				s.getTotalPieces() - s.getCount(s.bottomScore) - s.getCount(s.topScore));
+	}
+
+	/**
+	 * Solve the start of a game.
+	 *
+	 * args: [boardSize] [startingPieces] [tablebase stones] [checkpoint file] [table size log2]
+	 */
+	public static void main(String[] args) throws Exception {
+		int boardSize = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int startingPieces = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		int endgameStones = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+		String checkpointFile = args.length > 3 ? args[3] : "solve-" + boardSize + "-" + startingPieces + ".ckpt";
+		int tableSizeLog2 = args.length > 4 ? Integer.parseInt(args[4]) : 24;
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		MancalaSolver solver = new MancalaSolver(threads, tableSizeLog2);
+		solver.setVerbosity(true);
+		if (endgameStones > 0) {
+			long start = System.nanoTime();
+			solver.setTablebase(EndgameTablebase.build(boardSize, endgameStones, threads));
+			System.out.println("tablebase of " + endgameStones + " stones built in "
+					+ (System.nanoTime() - start) / 1000000 + " ms");
+		}
+		Solution s = solver.solve(new GameState(boardSize, startingPieces), checkpointFile);
+		System.out.println("GameState(" + boardSize + ", " + startingPieces + ") with " + threads + " threads");
+		System.out.println(s);
+	}
+}
@@ -0,0 +1,430 @@
+/**
+ * A MancalaPlayer that uses Monte Carlo Tree Search with UCT selection.
+ *
+ * The tree is a pool of primitive arrays indexed by node number instead of
+ * one object per node. The children of a node are stored next to each
+ * other, so a node only needs to know its first child and how many there
+ * are. Values are kept from the bottom player's point of view and turned
+ * around for the player to move when choosing a child, which also handles
+ * extra turns.
+ *
+ * After each move the subtree for the position we are given next is found,
+ * copied to the front of a fresh pool and searched further, so the work of
+ * the last search is not thrown away.
+ *
+ * There are three ways to use several threads:
+ * SERIAL runs one search.
+ * ROOT_PARALLEL gives every thread its own tree and adds up the root visits.
+ * TREE_PARALLEL lets every thread work on one shared tree. A thread walking
+ * down the tree adds a virtual loss to each node it passes, so the others
+ * are steered to different lines until its result is backed up.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class MctsPlayer extends MancalaPlayer {
+
+	public enum Mode {
+		SERIAL, ROOT_PARALLEL, TREE_PARALLEL
+	}
+
+	// the exploration constant for UCT, rewards are between -1 and 1
+	double exploration = 1.0;
+
+	// how far below the old root to look for the new position
+	static final int REUSE_DEPTH = 8;
+
+	final Mode mode;
+	final int threads;
+	// one tree per thread for ROOT_PARALLEL, otherwise just one
+	final Tree[] trees;
+	private final ExecutorService pool;
+	private final SplittableRandom random = new SplittableRandom();
+
+	// statistics for the last move
+	long playouts;
+	long searchNanos;
+	int reusedVisits;
+
+	public MctsPlayer() {
+		this(Mode.TREE_PARALLEL, Runtime.getRuntime().availableProcessors(), 1 << 20);
+	}
+
+	/**
+	 * @mode how the threads share the work
+	 * @threads how many threads search, 1 for SERIAL
+	 * @capacity how many nodes the trees can hold in total
+	 */
+	public MctsPlayer(Mode mode, int threads, int capacity) {
+		this.mode = mode;
+		this.threads = mode == Mode.SERIAL ? 1 : threads;
+		int treeCount = mode == Mode.ROOT_PARALLEL ? this.threads : 1;
+		trees = new Tree[treeCount];
+		for (int i = 0; i < treeCount; ++i) {
+			trees[i] = new Tree(capacity / treeCount);
+		}
+		pool = this.threads > 1 ? Executors.newFixedThreadPool(this.threads, r -> {
+			Thread t = new Thread(r, "mcts");
+			t.setDaemon(true);
+			return t;
+		}) : null;
+	}
+
+	@Override
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	@Override
+	public Move getMove(GameState g, long deadline) {
+		TimeManager timeManager = getTimeManager();
+		Move booked = bookMove(g);
+		if (booked != null) {
+			return booked;
+		}
+		long start = System.nanoTime();
+		reusedVisits = 0;
+		for (Tree tree : trees) {
+			tree.setRoot(g);
+			reusedVisits += tree.visits.get(tree.root);
+		}
+		long legal = trees[0].rootState.getLegalMoveMask();
+		timeManager.startMove(Long.bitCount(legal), deadline);
+		if (timeManager.isForced()) {
+			timeManager.endMove();
+			return Move.of(Long.numberOfTrailingZeros(legal));
+		}
+		long stopTime = timeManager.getHardStop();
+
+		long[] counts = new long[threads];
+		if (threads == 1) {
+			counts[0] = trees[0].search(new PackedGameState(trees[0].rootState), random.split(), stopTime);
+		} else {
+			List<Future<Long>> running = new ArrayList<>();
+			for (int t = 0; t < threads; ++t) {
+				Tree tree = trees[mode == Mode.ROOT_PARALLEL ? t : 0];
+				PackedGameState s = new PackedGameState(tree.rootState);
+				SplittableRandom r = random.split();
+				running.add(pool.submit(() -> tree.search(s, r, stopTime)));
+			}
+			for (int t = 0; t < threads; ++t) {
+				try {
+					counts[t] = running.get(t).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					e.getCause().printStackTrace();
+				}
+			}
+		}
+		playouts = 0;
+		for (long c : counts) {
+			playouts += c;
+		}
+		searchNanos = System.nanoTime() - start;
+
+		// play the move whose root child was visited most, over all trees
+		long[] visits = new long[g.board.length];
+		for (Tree tree : trees) {
+			int first = tree.firstChild[tree.root];
+			for (int c = first; c < first + tree.childCount[tree.root]; ++c) {
+				visits[tree.move[c]] += tree.visits.get(c);
+			}
+		}
+		int bestMove = Long.numberOfTrailingZeros(legal);
+		for (long left = legal; left != 0; left &= left - 1) {
+			int m = Long.numberOfTrailingZeros(left);
+			if (visits[m] > visits[bestMove]) {
+				bestMove = m;
+			}
+		}
+		if (verbose) {
+			System.out.println(this + " " + playouts + " playouts, " + String.format("%.0f", getPlayoutsPerSecond())
+					+ " per second, " + reusedVisits + " visits reused");
+		}
+		timeManager.endMove();
+		return Move.of(bestMove);
+	}
+
+	// playouts per second during the last move
+	public double getPlayoutsPerSecond() {
+		return searchNanos == 0 ? 0 : playouts / (searchNanos / 1e9);
+	}
+
+	// playouts during the last move
+	public long getPlayouts() {
+		return playouts;
+	}
+
+	// visits of the root that were kept from earlier moves
+	public int getReusedVisits() {
+		return reusedVisits;
+	}
+
+	public String toString() {
+		return "Mcts";
+	}
+
+	// node states
+	static final int UNEXPANDED = 0;
+	static final int EXPANDING = 1;
+	static final int EXPANDED = 2;
+
+	/**
+	 * A search tree stored in parallel arrays. firstChild, childCount and
+	 * move are written before state is set to EXPANDED, and read only after
+	 * state is seen to be EXPANDED, so threads can share a tree.
+	 */
+	class Tree {
+		final int capacity;
+		// the arrays are allocated once and reused for every move
+		final int[] firstChild;
+		final int[] childCount;
+		final int[] move;
+		final AtomicIntegerArray state;
+		final AtomicIntegerArray visits;
+		// sum of the rewards, 1 for a bottom win, -1 for a top win
+		final AtomicIntegerArray reward;
+		final AtomicIntegerArray virtualLoss;
+		// new index of each node during compact, -1 for nodes that are dropped
+		private final int[] newIndex;
+		final AtomicInteger nextFree = new AtomicInteger();
+
+		int root;
+		PackedGameState rootState;
+
+		Tree(int capacity) {
+			this.capacity = capacity;
+			firstChild = new int[capacity];
+			childCount = new int[capacity];
+			move = new int[capacity];
+			state = new AtomicIntegerArray(capacity);
+			visits = new AtomicIntegerArray(capacity);
+			reward = new AtomicIntegerArray(capacity);
+			virtualLoss = new AtomicIntegerArray(capacity);
+			newIndex = new int[capacity];
+		}
+
+		// how much of the pool is in use; a failed expand can leave nextFree past the end
+		private int used() {
+			return Math.min(nextFree.get(), capacity);
+		}
+
+		// reset the nodes from first up to end
+		private void clear(int first, int end) {
+			for (int n = first; n < end; ++n) {
+				state.set(n, UNEXPANDED);
+				visits.set(n, 0);
+				reward.set(n, 0);
+				virtualLoss.set(n, 0);
+			}
+		}
+
+		/**
+		 * Make g the root, keeping the subtree of the old root if g is found
+		 * within REUSE_DEPTH moves of it.
+		 */
+		void setRoot(GameState g) {
+			int found = -1;
+			if (rootState != null && rootState.getBoardLength() == g.board.length
+					&& rootState.getTotalPieces() == g.totalPieces) {
+				found = find(rootState, root, g, REUSE_DEPTH);
+			}
+			rootState = new PackedGameState(g);
+			if (found >= 0) {
+				compact(found);
+			} else {
+				clear(0, used());
+				nextFree.set(1);
+				root = 0;
+				move[0] = -1;
+			}
+			if (state.get(root) != EXPANDED && !rootState.isGameOver()) {
+				expand(root, rootState);
+			}
+		}
+
+		// the node below node whose position is g, or -1
+		private int find(PackedGameState s, int node, GameState g, int depth) {
+			if (s.matches(g)) {
+				return node;
+			}
+			if (depth == 0 || state.get(node) != EXPANDED) {
+				return -1;
+			}
+			int first = firstChild[node];
+			for (int c = first; c < first + childCount[node]; ++c) {
+				s.make(move[c]);
+				int found = find(s, c, g, depth - 1);
+				s.unmake();
+				if (found >= 0) {
+					return found;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Slide the subtree under newRoot down to the start of the pool, in
+		 * place. Children are always allocated after their parent, so one pass
+		 * in pool order finds the whole subtree, and keeping that order means
+		 * every node moves to an index no higher than its own, over nodes that
+		 * have already been moved or dropped.
+		 */
+		private void compact(int newRoot) {
+			int used = used();
+			Arrays.fill(newIndex, newRoot, used, -1);
+			newIndex[newRoot] = 0;
+			int kept = 0;
+			for (int n = newRoot; n < used; ++n) {
+				if (newIndex[n] < 0) {
+					continue;
+				}
+				newIndex[n] = kept++;
+				if (state.get(n) == EXPANDED) {
+					for (int c = firstChild[n]; c < firstChild[n] + childCount[n]; ++c) {
+						newIndex[c] = 0;
+					}
+				}
+			}
+			for (int n = newRoot; n < used; ++n) {
+				int to = newIndex[n];
+				if (to < 0) {
+					continue;
+				}
+				boolean expanded = state.get(n) == EXPANDED;
+				firstChild[to] = expanded ? newIndex[firstChild[n]] : 0;
+				childCount[to] = expanded ? childCount[n] : 0;
+				move[to] = move[n];
+				state.set(to, expanded ? EXPANDED : UNEXPANDED);
+				visits.set(to, visits.get(n));
+				reward.set(to, reward.get(n));
+				virtualLoss.set(to, 0);
+			}
+			move[0] = -1;
+			clear(kept, used);
+			nextFree.set(kept);
+			root = 0;
+		}
+
+		/**
+		 * Give node one child for every legal move in s. Returns false if the
+		 * pool is full or another thread is already expanding it.
+		 */
+		boolean expand(int node, PackedGameState s) {
+			if (!state.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+				return false;
+			}
+			long legal = s.getLegalMoveMask();
+			int count = Long.bitCount(legal);
+			if (nextFree.get() + count > capacity) {
+				state.set(node, UNEXPANDED);
+				return false;
+			}
+			int first = nextFree.getAndAdd(count);
+			if (first + count > capacity) {
+				state.set(node, UNEXPANDED);
+				return false;
+			}
+			for (int c = first; legal != 0; ++c) {
+				move[c] = Long.numberOfTrailingZeros(legal);
+				legal &= legal - 1;
+			}
+			firstChild[node] = first;
+			childCount[node] = count;
+			state.set(node, EXPANDED);
+			return true;
+		}
+
+		// the child of node with the best UCT value for the player to move
+		private int select(int node, boolean bottomTurn) {
+			int first = firstChild[node];
+			int end = first + childCount[node];
+			double logParent = Math.log(visits.get(node) + virtualLoss.get(node) + 1);
+			int best = first;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			for (int c = first; c < end; ++c) {
+				int loss = virtualLoss.get(c);
+				int n = visits.get(c) + loss;
+				if (n == 0) {
+					return c;
+				}
+				int sum = reward.get(c);
+				double value = ((bottomTurn ? sum : -sum) - loss) / (double) n
+						+ exploration * Math.sqrt(logParent / n);
+				if (value > bestValue) {
+					bestValue = value;
+					best = c;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Run iterations from the root on s until stopTime.
+		 *
+		 * @return the number of playouts
+		 */
+		long search(PackedGameState s, SplittableRandom random, long stopTime) {
+			int[] path = new int[IterativeDeepeningPlayer.MAX_PLY * 4];
+			long count = 0;
+			do {
+				for (int i = 0; i < 16; ++i) {
+					iterate(s, random, path);
+				}
+				count += 16;
+			} while (System.currentTimeMillis() < stopTime);
+			return count;
+		}
+
+		// one selection, expansion, playout and backup
+		private void iterate(PackedGameState s, SplittableRandom random, int[] path) {
+			int length = 0;
+			int node = root;
+			path[length++] = node;
+			int result;
+			while (true) {
+				if (s.isGameOver()) {
+					result = Long.signum(s.getFinalNetScore());
+					break;
+				}
+				if (state.get(node) != EXPANDED) {
+					if (visits.get(node) == 0 || !expand(node, s)) {
+						result = Long.signum(RolloutEngine.playout(s, random));
+						break;
+					}
+				}
+				if (length == path.length) {
+					result = Long.signum(RolloutEngine.playout(s, random));
+					break;
+				}
+				node = select(node, s.getTurn());
+				virtualLoss.incrementAndGet(node);
+				s.make(move[node]);
+				path[length++] = node;
+			}
+			for (int i = length - 1; i >= 0; --i) {
+				int n = path[i];
+				visits.incrementAndGet(n);
+				reward.addAndGet(n, result);
+				if (i > 0) {
+					virtualLoss.decrementAndGet(n);
+					s.unmake();
+				}
+			}
+		}
+	}
+}
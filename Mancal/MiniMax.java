@@ -55,4 +55,50 @@ public interface MiniMax {
      * @return the effective branching factor.
      */
     public double getEffectiveBranchingFactor();
+
+    /**
+     * Get the transposition table used by the search, if any.
+     * MancalaPlayer provides this for every player.
+     *
+     * @return the table, or null if the search does not use one.
+     */
+    public default TranspositionTable getTranspositionTable() {
+        return null;
+    }
+
+    /**
+     * Get the number of transposition table probes that found
+     * the position, counted only when the program
+     * runs with -Dmancala.stats=true.
+     *
+     * @return the number of table hits.
+     */
+    public default int getTableHits() {
+        TranspositionTable t = getTranspositionTable();
+        return t == null ? 0 : (int) t.getHits();
+    }
+
+    /**
+     * Get the number of transposition table probes that did not
+     * find the position, including collisions, counted only when the program
+     * runs with -Dmancala.stats=true.
+     *
+     * @return the number of table misses.
+     */
+    public default int getTableMisses() {
+        TranspositionTable t = getTranspositionTable();
+        return t == null ? 0 : (int) t.getMisses();
+    }
+
+    /**
+     * Get the number of transposition table probes that found a
+     * different position stored in the same slot, counted only when the program
+     * runs with -Dmancala.stats=true.
+     *
+     * @return the number of table collisions.
+     */
+    public default int getTableCollisions() {
+        TranspositionTable t = getTranspositionTable();
+        return t == null ? 0 : (int) t.getCollisions();
+    }
 }
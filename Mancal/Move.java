@@ -2,11 +2,25 @@
 public class Move {
 
 	
-	int location;
+	// final, since of() hands the same Move to every player and search
+	final int location;
+
+	// one shared Move per location, handed out by of()
+	private static final Move[] CACHE = new Move[64];
+	static {
+		for (int i = 0; i < CACHE.length; ++i) {
+			CACHE[i] = new Move(i);
+		}
+	}
 	
 	public Move(int loc) {
 		location = loc;
 	}
+
+	// the shared Move for loc, so move generation does not allocate
+	public static Move of(int loc) {
+		return loc >= 0 && loc < CACHE.length ? CACHE[loc] : new Move(loc);
+	}
 	
 	public String toString() {
 		return ""+location;
@@ -15,4 +29,8 @@ public class Move {
 	public boolean equals(Object other) {
 		return location == ((Move)other).location;
 	}
+
+	public int hashCode() {
+		return location;
+	}
 }
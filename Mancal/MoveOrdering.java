@@ -0,0 +1,284 @@
+/**
+ * Puts moves in the order alpha-beta should try them, best guesses first,
+ * so that cutoffs come early.
+ *
+ * Moves are ranked by:
+ * 1. extra turns: the last stone lands in the mover's store, the nearest
+ *    pit to the store first so the others are not disturbed
+ * 2. captures: the last stone lands in an empty pit of the mover's own
+ *    row with stones across from it once the move is sown, bigger
+ *    captures first
+ * 3. killers: moves that caused a cutoff at the same ply elsewhere in the tree
+ * 4. history: how often, weighted by depth, a move has caused a cutoff
+ *
+ * Where the last stone lands is worked out from the stone count alone,
+ * without making the move. One MoveOrdering belongs to one search thread.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoveOrdering {
+
+	static final int KILLERS = 2;
+
+	// the ranks above history, history scores stay below KILLER
+	private static final int EXTRA_TURN = 3 << 24;
+	private static final int CAPTURE = 2 << 24;
+	private static final int KILLER = 1 << 24;
+
+	// killers[ply][k] is a location, -1 for none
+	private final int[][] killers;
+	// history[loc], for both sides since each side has its own locations
+	private final int[] history = new int[64];
+	// sort keys for the moves being ordered
+	private final int[] keys = new int[64];
+
+	public MoveOrdering(int maxPly) {
+		killers = new int[maxPly + 1][KILLERS];
+		clear();
+	}
+
+	// forget everything learned
+	public void clear() {
+		for (int[] k : killers) {
+			java.util.Arrays.fill(k, -1);
+		}
+		java.util.Arrays.fill(history, 0);
+	}
+
+	// keep what was learned in the last search, but trust it less
+	public void newSearch() {
+		for (int[] k : killers) {
+			java.util.Arrays.fill(k, -1);
+		}
+		for (int i = 0; i < history.length; ++i) {
+			history[i] >>= 2;
+		}
+	}
+
+	/**
+	 * Record that move caused a cutoff at ply with depth left.
+	 */
+	public void cutoff(int move, int ply, int depth) {
+		int[] k = killers[ply];
+		if (k[0] != move) {
+			k[1] = k[0];
+			k[0] = move;
+		}
+		history[move] += depth * depth;
+		if (history[move] >= KILLER) {
+			for (int i = 0; i < history.length; ++i) {
+				history[i] >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * Append the moves in legal to moves[count..], best first.
+	 *
+	 * @return the new number of moves
+	 */
+	public int order(PackedGameState s, long legal, int ply, int[] moves, int count) {
+		int first = count;
+		int length = s.getBoardLength();
+		for (; legal != 0; legal &= legal - 1) {
+			int m = Long.numberOfTrailingZeros(legal);
+			int target = landing(length, m, s.getCount(m));
+			int key;
+			int captured;
+			if (target == ownStore(length, m)) {
+				key = EXTRA_TURN + length - distance(length, m, target);
+			} else if ((captured = captured(s, m, target)) > 0) {
+				key = CAPTURE + captured;
+			} else {
+				key = rank(m, ply);
+			}
+			insert(moves, first, count++, m, key);
+		}
+		return count;
+	}
+
+	/**
+	 * The moves in legal that earn an extra turn or capture stones.
+	 */
+	public static long tacticalMoves(PackedGameState s, long legal) {
+		int length = s.getBoardLength();
+		long tactical = 0;
+		for (; legal != 0; legal &= legal - 1) {
+			int m = Long.numberOfTrailingZeros(legal);
+			int target = landing(length, m, s.getCount(m));
+			if (target == ownStore(length, m) || captured(s, m, target) > 0) {
+				tactical |= 1L << m;
+			}
+		}
+		return tactical;
+	}
+
+	// the stones captured across from target by the move at m whose last stone lands there, 0 for none
+	static int captured(PackedGameState s, int m, int target) {
+		int length = s.getBoardLength();
+		return isOwnPit(length, m, target)
+				? captured(length, m, s.getCount(m), target, s.getCount(target), s.getCount(length - 2 - target))
+				: 0;
+	}
+
+	static int captured(GameState g, int m, int target) {
+		int length = g.board.length;
+		return isOwnPit(length, m, target)
+				? captured(length, m, g.board[m], target, g.board[target], g.board[length - 2 - target])
+				: 0;
+	}
+
+	/**
+	 * The stones across from target after sowing stones from m, if the last
+	 * of them lands in target, one of the mover's pits, and leaves it with
+	 * one stone. Otherwise 0, there is no capture. The counts are from
+	 * before the move.
+	 */
+	private static int captured(int length, int m, int stones, int target, int targetCount, int oppositeCount) {
+		// m is emptied before sowing starts
+		int before = target == m ? 0 : targetCount;
+		if (before + sown(length, m, stones, target) != 1) {
+			return 0;
+		}
+		return oppositeCount + sown(length, m, stones, length - 2 - target);
+	}
+
+	// the stones that sowing stones from m drops at loc, which is not the opponent's store
+	private static int sown(int length, int m, int stones, int loc) {
+		int cycle = length - 1;
+		// m itself is the last location of each lap
+		int d = loc == m ? cycle : distance(length, m, loc);
+		return stones < d ? 0 : (stones - d) / cycle + 1;
+	}
+
+	/**
+	 * The legal moves of g, best first, for players that search on GameState.
+	 */
+	public ArrayList<Move> order(GameState g, int ply) {
+		int[] moves = new int[g.board.length];
+		int length = g.board.length;
+		int count = 0;
+		for (long legal = g.getLegalMoveMask(); legal != 0; legal &= legal - 1) {
+			int m = Long.numberOfTrailingZeros(legal);
+			int target = landing(length, m, g.board[m]);
+			int key;
+			int captured;
+			if (target == ownStore(length, m)) {
+				key = EXTRA_TURN + length - distance(length, m, target);
+			} else if ((captured = captured(g, m, target)) > 0) {
+				key = CAPTURE + captured;
+			} else {
+				key = rank(m, ply);
+			}
+			insert(moves, 0, count++, m, key);
+		}
+		ArrayList<Move> ordered = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i) {
+			ordered.add(Move.of(moves[i]));
+		}
+		return ordered;
+	}
+
+	// the killer or history key of a move that is neither an extra turn nor a capture
+	private int rank(int m, int ply) {
+		if (ply < killers.length) {
+			if (killers[ply][0] == m) {
+				return KILLER + 1;
+			}
+			if (killers[ply][1] == m) {
+				return KILLER;
+			}
+		}
+		return history[m];
+	}
+
+	// insertion sort step: put m with key into moves[first..count], highest key first
+	private void insert(int[] moves, int first, int count, int m, int key) {
+		int i = count;
+		while (i > first && keys[i - 1] < key) {
+			moves[i] = moves[i - 1];
+			keys[i] = keys[i - 1];
+			--i;
+		}
+		moves[i] = m;
+		keys[i] = key;
+	}
+
+	/**
+	 * Where the last of stones sown from loc lands. Sowing skips the
+	 * opponent's store, so it goes around a cycle of length - 1 locations.
+	 */
+	static int landing(int length, int loc, int stones) {
+		int skip = opponentStore(length, loc);
+		int cycle = length - 1;
+		int v = loc < skip ? loc : loc - 1;
+		int t = (v + (stones - 1) % cycle + 1) % cycle;
+		return t < skip ? t : t + 1;
+	}
+
+	// the number of sowing steps from loc to target
+	private static int distance(int length, int loc, int target) {
+		int skip = opponentStore(length, loc);
+		int v = loc < skip ? loc : loc - 1;
+		int t = target < skip ? target : target - 1;
+		return Math.floorMod(t - v, length - 1);
+	}
+
+	// the store of the player who owns the pit at loc
+	static int ownStore(int length, int loc) {
+		return loc < length / 2 ? length / 2 - 1 : length - 1;
+	}
+
+	static int opponentStore(int length, int loc) {
+		return loc < length / 2 ? length - 1 : length / 2 - 1;
+	}
+
+	// true if target is a pit on the same side as loc
+	static boolean isOwnPit(int length, int loc, int target) {
+		int half = length / 2;
+		return target != half - 1 && target != length - 1 && (loc < half) == (target < half);
+	}
+
+	/**
+	 * Compare fixed depth searches of the benchmark positions with and
+	 * without move ordering. The PV and table moves go first either way.
+	 *
+	 * args: [depth] [positions file]
+	 */
+	public static void main(String[] args) throws IOException {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+		String fileName = args.length > 1 ? args[1] : "bench/src/main/resources/positions.txt";
+		List<GameState> positions = IterativeDeepeningPlayer.readPositions(fileName);
+		System.out.println("ordering\tnodes\texpanded\tEBF\tms");
+		for (boolean ordered : new boolean[] { false, true }) {
+			IterativeDeepeningPlayer p = new IterativeDeepeningPlayer();
+			p.maxDepth = depth;
+			if (!ordered) {
+				p.ordering = null;
+			}
+			long nodes = 0;
+			long expanded = 0;
+			long explored = 0;
+			long begin = System.nanoTime();
+			for (GameState g : positions) {
+				p.getTranspositionTable().clear();
+				if (p.ordering != null) {
+					p.ordering.clear();
+				}
+				p.startSearch(g, Long.MAX_VALUE / 2);
+				p.deepen(1, 1);
+				nodes += p.nodesGenerated;
+				expanded += p.nodesExpanded;
+				explored += p.childrenExplored;
+			}
+			long ms = (System.nanoTime() - begin) / 1000000;
+			System.out.println((ordered ? "on" : "off") + "\t" + nodes + "\t" + expanded + "\t"
+					+ String.format("%.3f", (double) explored / expanded) + "\t" + ms);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * Records how long a player takes to choose its moves
+ *
+ * @version Oct 17, 2026
+ */
+
+public class MoveTiming {
+
+	MancalaPlayer player;
+	int moves;
+	int timeouts;
+	long totalMillis;
+	long maxMillis;
+
+	public MoveTiming(MancalaPlayer player) {
+		this.player = player;
+	}
+
+	// record one move that took millis ms, late is true if it missed the deadline
+	public synchronized void record(long millis, boolean late) {
+		moves++;
+		totalMillis += millis;
+		maxMillis = Math.max(maxMillis, millis);
+		if (late) {
+			timeouts++;
+		}
+	}
+
+	public synchronized int getMoves() {
+		return moves;
+	}
+
+	public synchronized int getTimeouts() {
+		return timeouts;
+	}
+
+	public synchronized long getTotalMillis() {
+		return totalMillis;
+	}
+
+	public synchronized long getMaxMillis() {
+		return maxMillis;
+	}
+
+	public synchronized double getAverageMillis() {
+		return moves == 0 ? 0 : (double) totalMillis / moves;
+	}
+
+	public synchronized String toString() {
+		return player + ": " + moves + " moves, average " + String.format("%.1f", getAverageMillis()) + " ms, max "
+				+ maxMillis + " ms, " + timeouts + " timeouts";
+	}
+}
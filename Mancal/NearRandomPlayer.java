@@ -7,59 +7,63 @@
  */
 
 import java.util.ArrayList;
-import java.util.Random;
 
 public class NearRandomPlayer extends MancalaPlayer implements MiniMax{
 
 
-	Random myRandom = new Random();
+	RolloutEngine engine = new RolloutEngine();
+
+	// random games played by the last call to getMove
+	long playouts;
 	
 	@Override
 	public Move getMove(GameState g, long deadline) {
-		ArrayList<Move> validMoves = g.getLegalMoves();
+		TimeManager timeManager = getTimeManager();
+		ArrayList<Move> legal = g.getLegalMoves();
+		timeManager.startMove(legal.size(), deadline);
+		if (timeManager.isForced()) {
+			timeManager.endMove();
+			return legal.get(0);
+		}
+		long[][] results = engine.evaluateMoves(g, timeManager.getHardStop());
+		long[] sums = results[0];
+		long[] counts = results[1];
 		Move bestMove = null;
 		double bestScore=-100000000;
-		ArrayList<Double> scoreForValidMoves = new ArrayList<>();
-		for(int i = 0; i < validMoves.size(); ++i) {
-			scoreForValidMoves.add(0.0);
-		}
-		while( deadline-System.currentTimeMillis() > 500) {
-			for(int i = 0; i < validMoves.size(); ++i) {
-				Move m = validMoves.get(i);
-				GameState next = g.makeMove(m);
-				double score= scoreForValidMoves.get(i) +staticEvaluator(next);
-				scoreForValidMoves.set(i, score);
-				if(!g.isBottomTurn) {
-					score=-score;
-				}
-				if(score > bestScore) {
-					bestScore = score;
-					bestMove = m;
-				}
-				//System.out.println("score for " +m + " " + score);
+		playouts = 0;
+		for (Move m : legal) {
+			playouts += counts[m.location];
+			if (counts[m.location] == 0) {
+				continue;
 			}
+			double score = (double) sums[m.location] / counts[m.location];
+			if(!g.isBottomTurn) {
+				score=-score;
+			}
+			if(score > bestScore) {
+				bestScore = score;
+				bestMove = m;
+			}
+			//System.out.println("score for " +m + " " + score);
 		}
 		
-		
+		timeManager.endMove();
 		return bestMove;
 	}
 
 	@Override
 	public double staticEvaluator(GameState state) {
-		double totalScore = 0;
-		for(int i = 0; i < 100; ++i) {
+		return engine.sum(state, 100);
+	}
 
-			//System.out.println("random game " + i);
-			GameState cur = state;
-			while(!cur.isGameOver()) {
-				ArrayList<Move> legalMoves =cur.getLegalMoves();
-				Move m = legalMoves.
-						get(myRandom.nextInt(legalMoves.size()));
-				cur =cur.makeMove(m);
-			}
-			totalScore += cur.getFinalNetScore();
-		}
-		return totalScore;
+	@Override
+	public void close() {
+		engine.close();
+	}
+
+	// random games played by the last call to getMove
+	public long getPlayouts() {
+		return playouts;
 	}
 
 	@Override
@@ -0,0 +1,332 @@
+/**
+ * Precomputed moves for the first few plies of a game.
+ *
+ * Every game starts from the same position, so the positions reachable in
+ * the first plies can be searched deeply once, ahead of time, and a player
+ * can then answer them without searching. The book holds, for every such
+ * position, the best move and score of a fixed depth
+ * IterativeDeepeningPlayer search.
+ *
+ * Positions are keyed by the Zobrist hash from TranspositionTable, which
+ * is the same in every run. The book file is a header and then one 12 byte
+ * entry per position, sorted by key: the key, the move, the depth searched
+ * and the score. open() memory maps it and probe() binary searches the map.
+ *
+ * build() searches the positions on several threads. Each finished
+ * position is appended to a journal next to the book, so a build that is
+ * stopped picks up where it left off when run again with the same
+ * arguments. The book is written from the journal at the end.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OpeningBook {
+
+	// returned by score for positions that are not in the book
+	public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	private static final int BOOK_MAGIC = 0x4D4F424B;
+	private static final int JOURNAL_MAGIC = 0x4D4F424A;
+	// magic, board length, total pieces, plies, depth, entry count
+	private static final int HEADER_BYTES = 24;
+	// key, move, depth, score
+	private static final int ENTRY_BYTES = 12;
+
+	final int boardLength;
+	final long totalPieces;
+	final int plies;
+	final int depth;
+	final int count;
+
+	// only used for its Zobrist keys
+	private final TranspositionTable hasher = new TranspositionTable(1, TranspositionTable.Replacement.ALWAYS);
+
+	// the entries, memory mapped
+	private ByteBuffer data;
+
+	private OpeningBook(int boardLength, long totalPieces, int plies, int depth, int count) {
+		this.boardLength = boardLength;
+		this.totalPieces = totalPieces;
+		this.plies = plies;
+		this.depth = depth;
+		this.count = count;
+	}
+
+	// the index of the entry for key, or -1
+	private int find(long key) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long k = data.getLong(mid * ENTRY_BYTES);
+			if (k < key) {
+				low = mid + 1;
+			} else if (k > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private int find(GameState g) {
+		if (g.board.length != boardLength || g.totalPieces != totalPieces) {
+			return -1;
+		}
+		return find(hasher.hash(g));
+	}
+
+	/**
+	 * @return the location of the book move for g, or -1 if g is not in the book
+	 */
+	public int probe(GameState g) {
+		int i = find(g);
+		return i < 0 ? -1 : data.get(i * ENTRY_BYTES + 8);
+	}
+
+	/**
+	 * @return the searched score of g for the player to move, or NOT_FOUND
+	 */
+	public int score(GameState g) {
+		int i = find(g);
+		return i < 0 ? NOT_FOUND : data.getShort(i * ENTRY_BYTES + 10);
+	}
+
+	public int getPlies() {
+		return plies;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	// memory map a book written by build
+	public static OpeningBook open(String fileName) throws IOException {
+		try (FileChannel in = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			if (in.read(header, 0) < HEADER_BYTES || header.flip().getInt() != BOOK_MAGIC) {
+				throw new IOException(fileName + " is not an opening book");
+			}
+			OpeningBook book = new OpeningBook(header.getInt(), header.getInt(), header.getInt(), header.getInt(),
+					header.getInt());
+			long bytes = (long) book.count * ENTRY_BYTES;
+			if (in.size() != HEADER_BYTES + bytes) {
+				throw new IOException(fileName + " has the wrong size");
+			}
+			MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, bytes);
+			book.data = map;
+			// build the Zobrist keys now so players on different threads can probe at once
+			book.hasher.hash(new GameState(new int[book.boardLength], true, book.totalPieces));
+			return book;
+		}
+	}
+
+	/**
+	 * Search every position reachable in the first plies of a game from
+	 * GameState(boardSize, startingPieces) to the given depth and write the
+	 * book to fileName. Positions already in the journal fileName.part are
+	 * not searched again.
+	 */
+	public static OpeningBook build(int boardSize, int startingPieces, int plies, int depth, int threads,
+			String fileName) throws IOException, InterruptedException {
+		GameState start = new GameState(boardSize, startingPieces);
+		OpeningBook book = new OpeningBook(start.board.length, start.totalPieces, plies, depth, 0);
+
+		// every position in the first plies, once each, nearest the start first
+		Map<Long, GameState> positions = new LinkedHashMap<>();
+		List<GameState> frontier = Collections.singletonList(start);
+		for (int ply = 0; ply < plies && !frontier.isEmpty(); ++ply) {
+			List<GameState> next = new ArrayList<>();
+			for (GameState g : frontier) {
+				if (g.isGameOver() || positions.putIfAbsent(book.hasher.hash(g), g) != null) {
+					continue;
+				}
+				for (Move m : g.getLegalMoves()) {
+					next.add(g.makeMove(m));
+				}
+			}
+			frontier = next;
+		}
+
+		Path journalPath = Paths.get(fileName + ".part");
+		try (FileChannel journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			Set<Long> done = book.readJournal(journal, journalPath);
+			int todo = positions.size() - done.size();
+			System.out.println(positions.size() + " positions, " + done.size() + " already in " + journalPath);
+
+			// each thread keeps one search, with its own table
+			ThreadLocal<IterativeDeepeningPlayer> searches = ThreadLocal.withInitial(() -> {
+				IterativeDeepeningPlayer p = new IterativeDeepeningPlayer();
+				p.maxDepth = depth;
+				return p;
+			});
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			List<Future<?>> running = new ArrayList<>();
+			AtomicInteger finished = new AtomicInteger();
+			long begin = System.nanoTime();
+			for (Map.Entry<Long, GameState> e : positions.entrySet()) {
+				if (done.contains(e.getKey())) {
+					continue;
+				}
+				long key = e.getKey();
+				GameState g = e.getValue();
+				running.add(pool.submit(() -> {
+					IterativeDeepeningPlayer p = searches.get();
+					// search even forced moves, so every entry has a score
+					p.startSearch(g, Long.MAX_VALUE / 2);
+					int move = p.deepen(1, 1);
+					ByteBuffer entry = entry(key, move, p.getCompletedDepth(), p.getBestScore());
+					synchronized (journal) {
+						while (entry.hasRemaining()) {
+							journal.write(entry);
+						}
+					}
+					int n = finished.incrementAndGet();
+					if (n % 1000 == 0 || n == todo) {
+						System.out.println(n + "/" + todo + " searched in "
+								+ (System.nanoTime() - begin) / 1000000 + " ms");
+					}
+					return null;
+				}));
+			}
+			pool.shutdown();
+			try {
+				for (Future<?> f : running) {
+					f.get();
+				}
+			} catch (ExecutionException e) {
+				pool.shutdownNow();
+				throw new IOException("book search failed", e.getCause());
+			}
+			journal.force(false);
+			book.writeBook(journal, fileName);
+		}
+		Files.delete(journalPath);
+		return open(fileName);
+	}
+
+	// one entry, ready to write
+	private static ByteBuffer entry(long key, int move, int depth, double score) {
+		ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+		entry.putLong(key).put((byte) move).put((byte) Math.min(depth, Byte.MAX_VALUE));
+		entry.putShort((short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, Math.round(score))));
+		return entry.flip();
+	}
+
+	/**
+	 * Check the journal's header, writing one if it is new, and drop a
+	 * partly written last entry.
+	 *
+	 * @return the keys of the positions already searched
+	 */
+	private Set<Long> readJournal(FileChannel journal, Path path) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(JOURNAL_MAGIC).putInt(boardLength).putInt((int) totalPieces).putInt(plies).putInt(depth)
+				.putInt(0).flip();
+		Set<Long> done = new HashSet<>();
+		if (journal.size() < HEADER_BYTES) {
+			journal.truncate(0);
+			while (header.hasRemaining()) {
+				journal.write(header, header.position());
+			}
+			journal.position(HEADER_BYTES);
+			return done;
+		}
+		ByteBuffer old = ByteBuffer.allocate(HEADER_BYTES);
+		journal.read(old, 0);
+		if (!old.flip().equals(header)) {
+			throw new IOException(path + " was started with different arguments");
+		}
+		long entries = (journal.size() - HEADER_BYTES) / ENTRY_BYTES;
+		journal.truncate(HEADER_BYTES + entries * ENTRY_BYTES);
+		ByteBuffer all = journal.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, entries * ENTRY_BYTES);
+		for (int i = 0; i < entries; ++i) {
+			done.add(all.getLong(i * ENTRY_BYTES));
+		}
+		journal.position(HEADER_BYTES + entries * ENTRY_BYTES);
+		return done;
+	}
+
+	// sort the journal entries by key and write them as the book, replacing any old book
+	private void writeBook(FileChannel journal, String fileName) throws IOException {
+		int entries = (int) ((journal.size() - HEADER_BYTES) / ENTRY_BYTES);
+		ByteBuffer all = journal.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) entries * ENTRY_BYTES);
+		Integer[] order = new Integer[entries];
+		for (int i = 0; i < entries; ++i) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> all.getLong(i * ENTRY_BYTES)));
+
+		Path temp = Paths.get(fileName + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(BOOK_MAGIC);
+			out.writeInt(boardLength);
+			out.writeInt((int) totalPieces);
+			out.writeInt(plies);
+			out.writeInt(depth);
+			out.writeInt(entries);
+			byte[] entry = new byte[ENTRY_BYTES];
+			for (int i : order) {
+				all.position(i * ENTRY_BYTES);
+				all.get(entry);
+				out.write(entry);
+			}
+		}
+		Files.move(temp, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Build (or finish building) the book for the standard game, then time
+	 * probes of the positions in it.
+	 *
+	 * args: [plies] [depth] [file]
+	 */
+	public static void main(String[] args) throws Exception {
+		int plies = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+		String fileName = args.length > 2 ? args[2] : "opening-" + plies + "-" + depth + ".book";
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		long start = System.nanoTime();
+		OpeningBook book = build(7, 4, plies, depth, threads, fileName);
+		System.out.println(book.size() + " positions in " + fileName + " after "
+				+ (System.nanoTime() - start) / 1000000 + " ms");
+
+		// replay random games through the book
+		Random random = new Random(364);
+		List<GameState> inBook = new ArrayList<>();
+		while (inBook.size() < 1000) {
+			GameState g = new GameState(7, 4);
+			for (int ply = 0; ply < plies && !g.isGameOver(); ++ply) {
+				inBook.add(g);
+				List<Move> moves = g.getLegalMoves();
+				g = g.makeMove(moves.get(random.nextInt(moves.size())));
+			}
+		}
+		for (int round = 0; round < 5; ++round) {
+			long sum = 0;
+			long begin = System.nanoTime();
+			for (int i = 0; i < 1000000; ++i) {
+				sum += book.probe(inBook.get(i % inBook.size()));
+			}
+			long ns = System.nanoTime() - begin;
+			System.out.println(String.format("%.1f", ns / 1e6) + " ns per probe (" + sum + ")");
+		}
+	}
+}
@@ -0,0 +1,380 @@
+/**
+ * A bit-packed Mancala position with in-place make/unmake.
+ *
+ * Every location on the board (pits and score buckets) is stored in a
+ * fixed width field of a long. The width is just large enough to hold
+ * all of the stones in the game, so the standard 7 hole, 4 stone board
+ * uses 6 bits per location and fits in two longs. The highest bit of the
+ * first word records whose turn it is.
+ *
+ * make and unmake change this object instead of creating a new one, so a
+ * search can walk the game tree without allocating. The results are the
+ * same as GameState.makeMove and GameState.getFinalNetScore.
+ *
+ * @version Oct 17, 2026
+ */
+
+public class PackedGameState {
+
+	// set in words[0] when it is the bottom player's turn
+	static final long BOTTOM_TURN = 1L << 63;
+
+	// the packed board, laid out as described by layout
+	long[] words;
+
+	// describes where each location lives in words
+	final Layout layout;
+
+	// index of the score buckets, the same as in GameState
+	final int bottomScore;
+	final int topScore;
+
+	// saved words for unmake
+	private long[] history;
+	private int historySize;
+
+	/**
+	 * Creates a starting game
+	 *
+	 * @boardSize the number of holes on one side of the board
+	 * @startingPieces the number of starting pieces per hole
+	 */
+	public PackedGameState(int boardSize, int startingPieces) {
+		this(new GameState(boardSize, startingPieces));
+	}
+
+	// pack an existing GameState
+	public PackedGameState(GameState g) {
+		layout = new Layout(g.board.length, g.totalPieces);
+		bottomScore = g.bottomScore;
+		topScore = g.topScore;
+		words = new long[layout.wordCount];
+		for (int i = 0; i < g.board.length; ++i) {
+			words[layout.wordOf[i]] |= (long) g.board[i] << layout.shiftOf[i];
+		}
+		if (g.isBottomTurn) {
+			words[0] |= BOTTOM_TURN;
+		}
+		history = new long[layout.wordCount * 64];
+	}
+
+	// duplicate a PackedGameState, sharing the layout but not the history
+	public PackedGameState(PackedGameState old) {
+		layout = old.layout;
+		bottomScore = old.bottomScore;
+		topScore = old.topScore;
+		words = old.words.clone();
+		history = new long[layout.wordCount * 64];
+	}
+
+	// the number of stones at a location
+	public int getCount(int loc) {
+		return (int) ((words[layout.wordOf[loc]] >>> layout.shiftOf[loc]) & layout.fieldMask);
+	}
+
+	public boolean getTurn() {
+		return (words[0] & BOTTOM_TURN) != 0;
+	}
+
+	public int getBoardLength() {
+		return layout.boardLength;
+	}
+
+	public long getTotalPieces() {
+		return layout.totalPieces;
+	}
+
+	// determine if a move is legal
+	public boolean isLegalMove(int loc) {
+		if (loc < 0 || loc >= topScore || loc == bottomScore || getCount(loc) == 0) {
+			return false;
+		}
+		return loc > bottomScore ^ getTurn();
+	}
+
+	// return the legal moves as a bitmask, bit i is set if pit i can be played
+	public long getLegalMoveMask() {
+		final int[] wordOf = layout.wordOf;
+		final long[] fieldAt = layout.fieldAt;
+		long mask = 0;
+		int first = getTurn() ? 0 : bottomScore + 1;
+		int last = getTurn() ? bottomScore : topScore;
+		for (int i = first; i < last; ++i) {
+			if ((words[wordOf[i]] & fieldAt[i]) != 0) {
+				mask |= 1L << i;
+			}
+		}
+		return mask;
+	}
+
+	// determine if a game is over
+	public boolean isGameOver() {
+		return isEmpty(layout.bottomPits) || isEmpty(layout.topPits);
+	}
+
+	private boolean isEmpty(long[] pits) {
+		for (int w = 0; w < words.length; ++w) {
+			if ((words[w] & pits[w]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// return the final score of the game
+	// >0 means bottom wins
+	// This method is only valid if the game is over
+	public long getFinalNetScore() {
+		long sum = 0;
+		for (int i = 0; i <= bottomScore; ++i) {
+			sum += getCount(i);
+		}
+		return 2 * (sum - layout.totalPieces / 2);
+	}
+
+	public double currentScore() {
+		return getCount(bottomScore) - getCount(topScore);
+	}
+
+	/**
+	 * Performs the move at loc on this state. The move must be legal.
+	 * The previous position is saved so it can be restored with unmake.
+	 */
+	public void make(int loc) {
+		if (historySize + words.length > history.length) {
+			history = java.util.Arrays.copyOf(history, history.length * 2);
+		}
+		for (int w = 0; w < words.length; ++w) {
+			history[historySize++] = words[w];
+		}
+
+		final int[] wordOf = layout.wordOf;
+		final long[] unit = layout.unit;
+		final int length = layout.boardLength;
+		boolean bottomTurn = getTurn();
+		int skip = bottomTurn ? topScore : bottomScore;
+
+		// sow whole laps arithmetically, then the remaining stones as a
+		// range of locations, so the work does not grow with the stones
+		int totalToMove = getCount(loc);
+		words[wordOf[loc]] &= ~layout.fieldAt[loc];
+		int cycle = length - 1;
+		int rest = totalToMove;
+		if (totalToMove > cycle) {
+			rest = (totalToMove - 1) % cycle + 1;
+			long laps = (totalToMove - rest) / cycle;
+			for (int w = 0; w < words.length; ++w) {
+				words[w] += laps * layout.all[w];
+			}
+			words[wordOf[skip]] -= laps * unit[skip];
+		}
+		int end = loc + rest;
+		int toSkip = skip > loc ? skip - loc : skip - loc + length;
+		if (toSkip <= rest) {
+			end++;
+			words[wordOf[skip]] -= unit[skip];
+		}
+		if (end < length) {
+			addRange(loc + 1, end + 1);
+		} else {
+			addRange(loc + 1, length);
+			addRange(0, end + 1 - length);
+		}
+		int curLocation = end < length ? end : end - length;
+
+		if (getCount(curLocation) == 1) {
+			int store = -1;
+			if (bottomTurn && curLocation < bottomScore) {
+				store = bottomScore;
+			} else if (!bottomTurn && curLocation > bottomScore && curLocation < topScore) {
+				store = topScore;
+			}
+			if (store >= 0) {
+				int opposite = length - 2 - curLocation;
+				long captured = 1 + getCount(opposite);
+				words[wordOf[curLocation]] &= ~layout.fieldAt[curLocation];
+				words[wordOf[opposite]] &= ~layout.fieldAt[opposite];
+				words[wordOf[store]] += captured * unit[store];
+			}
+		}
+
+		if (curLocation == bottomScore) {
+			words[0] |= BOTTOM_TURN;
+		} else if (curLocation == topScore) {
+			words[0] &= ~BOTTOM_TURN;
+		} else {
+			words[0] ^= BOTTOM_TURN;
+		}
+	}
+
+	// add one stone to every location from start up to but not including end
+	private void addRange(int start, int end) {
+		final long[] prefix = layout.prefix;
+		final int n = words.length;
+		for (int w = 0; w < n; ++w) {
+			words[w] += prefix[end * n + w] - prefix[start * n + w];
+		}
+	}
+
+	// undo the last call to make
+	public void unmake() {
+		for (int w = words.length - 1; w >= 0; --w) {
+			words[w] = history[--historySize];
+		}
+	}
+
+	// the number of moves that can currently be undone
+	public int getPly() {
+		return historySize / words.length;
+	}
+
+	// put count stones at loc, for tools that build positions directly
+	void setCount(int loc, int count) {
+		words[layout.wordOf[loc]] = (words[layout.wordOf[loc]] & ~layout.fieldAt[loc])
+				| (long) count << layout.shiftOf[loc];
+	}
+
+	void setTurn(boolean bottomTurn) {
+		if (bottomTurn) {
+			words[0] |= BOTTOM_TURN;
+		} else {
+			words[0] &= ~BOTTOM_TURN;
+		}
+	}
+
+	// convert back to an ordinary GameState
+	public GameState toGameState() {
+		return new GameState(copyBoard(new int[layout.boardLength]), getTurn(), layout.totalPieces);
+	}
+
+	// fill board with the count at every location, as in GameState.board
+	public int[] copyBoard(int[] board) {
+		for (int i = 0; i < layout.boardLength; ++i) {
+			board[i] = getCount(i);
+		}
+		return board;
+	}
+
+	// true if this and the GameState describe the same position
+	public boolean matches(GameState g) {
+		if (g.board.length != layout.boardLength || g.isBottomTurn != getTurn()) {
+			return false;
+		}
+		for (int i = 0; i < g.board.length; ++i) {
+			if (g.board[i] != getCount(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void printBoard() {
+		toGameState().printBoard();
+	}
+
+	/**
+	 * Where each board location is stored. A layout only depends on the
+	 * geometry of the game so copies of a state share it.
+	 */
+	static class Layout {
+		final int boardLength;
+		final long totalPieces;
+		final int bits;
+		final long fieldMask;
+		final int wordCount;
+		final int[] wordOf;
+		final int[] shiftOf;
+		// 1 shifted into place, and the full field mask shifted into place
+		final long[] unit;
+		final long[] fieldAt;
+		// one stone in every location, per word
+		final long[] all;
+		// prefix[i * wordCount + w] is one stone in each location before i in word w
+		final long[] prefix;
+		// per word masks covering the pits (not the stores) of each side
+		final long[] bottomPits;
+		final long[] topPits;
+
+		Layout(int boardLength, long totalPieces) {
+			this.boardLength = boardLength;
+			this.totalPieces = totalPieces;
+			bits = Math.max(1, 64 - Long.numberOfLeadingZeros(totalPieces));
+			if (bits > 31) {
+				throw new IllegalArgumentException("too many pieces to pack: " + totalPieces);
+			}
+			fieldMask = (1L << bits) - 1;
+			// leave the top bit of each word free for the turn
+			int perWord = 63 / bits;
+			wordCount = (boardLength + perWord - 1) / perWord;
+			wordOf = new int[boardLength];
+			shiftOf = new int[boardLength];
+			unit = new long[boardLength];
+			fieldAt = new long[boardLength];
+			all = new long[wordCount];
+			prefix = new long[(boardLength + 1) * wordCount];
+			bottomPits = new long[wordCount];
+			topPits = new long[wordCount];
+			int bottomScore = boardLength / 2 - 1;
+			int topScore = boardLength - 1;
+			for (int i = 0; i < boardLength; ++i) {
+				wordOf[i] = i / perWord;
+				shiftOf[i] = (i % perWord) * bits;
+				unit[i] = 1L << shiftOf[i];
+				fieldAt[i] = fieldMask << shiftOf[i];
+				all[wordOf[i]] |= unit[i];
+				for (int w = 0; w < wordCount; ++w) {
+					prefix[(i + 1) * wordCount + w] = prefix[i * wordCount + w];
+				}
+				prefix[(i + 1) * wordCount + wordOf[i]] += unit[i];
+				if (i < bottomScore) {
+					bottomPits[wordOf[i]] |= fieldAt[i];
+				} else if (i > bottomScore && i < topScore) {
+					topPits[wordOf[i]] |= fieldAt[i];
+				}
+			}
+		}
+	}
+
+	// count the positions reachable in depth moves, or game ends before that
+	static long perft(PackedGameState s, int depth) {
+		if (depth == 0 || s.isGameOver()) {
+			return 1;
+		}
+		long count = 0;
+		long moves = s.getLegalMoveMask();
+		while (moves != 0) {
+			int loc = Long.numberOfTrailingZeros(moves);
+			moves &= moves - 1;
+			s.make(loc);
+			count += perft(s, depth - 1);
+			s.unmake();
+		}
+		return count;
+	}
+
+	static long perft(GameState g, int depth) {
+		if (depth == 0 || g.isGameOver()) {
+			return 1;
+		}
+		long count = 0;
+		for (Move m : g.getLegalMoves()) {
+			count += perft(g.makeMove(m), depth - 1);
+		}
+		return count;
+	}
+
+	// compares the node rate of GameState and PackedGameState on the standard board
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+		for (int round = 0; round < 3; ++round) {
+			long start = System.nanoTime();
+			long slow = perft(new GameState(7, 4), depth);
+			long mid = System.nanoTime();
+			long fast = perft(new PackedGameState(7, 4), depth);
+			long end = System.nanoTime();
+			System.out.println("depth " + depth + ": GameState " + slow + " nodes in " + (mid - start) / 1000000
+					+ " ms, PackedGameState " + fast + " nodes in " + (end - mid) / 1000000 + " ms, speedup "
+					+ String.format("%.1f", (double) (mid - start) / (end - mid)));
+		}
+	}
+}
@@ -0,0 +1,223 @@
+/**
+ * Keeps ratings for Mancala players, updated after every game.
+ *
+ * Ratings use the Glicko system, a Bradley-Terry model on the Elo scale.
+ * Each player has a rating and a rating deviation that measures how
+ * unsure the rating still is. Every game moves both numbers, so no full
+ * round robin is needed before the ratings mean something. The deviation
+ * gives a confidence interval and tells which pairings teach us the most.
+ *
+ * Ratings can be saved to and loaded from a small binary file so they
+ * carry over between runs.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.io.*;
+import java.util.*;
+
+public class RatingService {
+
+	static final double INITIAL_RATING = 1500;
+	static final double INITIAL_DEVIATION = 350;
+	// the deviation never drops below this so ratings can still follow a changed player
+	static final double MIN_DEVIATION = 30;
+	static final double Q = Math.log(10) / 400;
+
+	// identifies the file format
+	private static final int FILE_MAGIC = 0x4D525431;
+
+	private final Map<String, Rating> ratings = new LinkedHashMap<>();
+
+	// where the ratings are saved, or null to keep them in memory only
+	private final File file;
+
+	// ratings kept only in memory
+	public RatingService() {
+		file = null;
+	}
+
+	// ratings loaded from fileName if it exists, and saved there by save()
+	public RatingService(String fileName) throws IOException {
+		file = new File(fileName);
+		if (file.exists()) {
+			load();
+		}
+	}
+
+	// the rating of one player
+	public static class Rating {
+		final String name;
+		double rating = INITIAL_RATING;
+		double deviation = INITIAL_DEVIATION;
+		int games;
+
+		Rating(String name) {
+			this.name = name;
+		}
+
+		public double getRating() {
+			return rating;
+		}
+
+		public double getDeviation() {
+			return deviation;
+		}
+
+		public int getGames() {
+			return games;
+		}
+
+		// the rating interval at about 95% confidence
+		public double getLow() {
+			return rating - 1.96 * deviation;
+		}
+
+		public double getHigh() {
+			return rating + 1.96 * deviation;
+		}
+
+		public String toString() {
+			return String.format("%.0f\t+-%.0f\t%d\t%s", rating, 1.96 * deviation, games, name);
+		}
+	}
+
+	// the rating for name, created if it is new
+	public synchronized Rating get(String name) {
+		return ratings.computeIfAbsent(name, Rating::new);
+	}
+
+	/**
+	 * Update both ratings after one game.
+	 *
+	 * @score 1 if a won, 0 if b won, .5 for a tie
+	 */
+	public synchronized void recordGame(String a, String b, double score) {
+		Rating ra = get(a);
+		Rating rb = get(b);
+		double[] newA = update(ra, rb, score);
+		double[] newB = update(rb, ra, 1 - score);
+		ra.rating = newA[0];
+		ra.deviation = newA[1];
+		rb.rating = newB[0];
+		rb.deviation = newB[1];
+		ra.games++;
+		rb.games++;
+	}
+
+	// Glicko update of player against opponent, returns the new rating and deviation
+	private static double[] update(Rating player, Rating opponent, double score) {
+		double g = g(opponent.deviation);
+		double e = expected(player.rating, opponent.rating, g);
+		double dInverse = Q * Q * g * g * e * (1 - e);
+		double precision = 1 / (player.deviation * player.deviation) + dInverse;
+		double rating = player.rating + Q / precision * g * (score - e);
+		double deviation = Math.max(MIN_DEVIATION, Math.sqrt(1 / precision));
+		return new double[] { rating, deviation };
+	}
+
+	private static double g(double deviation) {
+		return 1 / Math.sqrt(1 + 3 * Q * Q * deviation * deviation / (Math.PI * Math.PI));
+	}
+
+	private static double expected(double rating, double opponentRating, double g) {
+		return 1 / (1 + Math.pow(10, -g * (rating - opponentRating) / 400));
+	}
+
+	// the chance that a beats b
+	public synchronized double expectedScore(String a, String b) {
+		Rating ra = get(a);
+		Rating rb = get(b);
+		double combined = Math.sqrt(ra.deviation * ra.deviation + rb.deviation * rb.deviation);
+		return expected(ra.rating, rb.rating, g(combined));
+	}
+
+	/**
+	 * How much a game between a and b is expected to shrink the rating
+	 * deviations. Games between close players with unsure ratings score
+	 * highest.
+	 */
+	public synchronized double information(String a, String b) {
+		Rating ra = get(a);
+		Rating rb = get(b);
+		double variance = ra.deviation * ra.deviation + rb.deviation * rb.deviation;
+		double g = g(Math.sqrt(variance));
+		double e = expected(ra.rating, rb.rating, g);
+		return variance * g * g * e * (1 - e);
+	}
+
+	/**
+	 * True if the best player's rating interval is above everyone else's.
+	 *
+	 * @z the width of the intervals in deviations, e.g. 1.96 for 95%
+	 */
+	public synchronized boolean isLeaderDecided(Collection<String> names, double z) {
+		List<Rating> sorted = sorted(names);
+		if (sorted.size() < 2) {
+			return true;
+		}
+		double low = sorted.get(0).rating - z * sorted.get(0).deviation;
+		for (int i = 1; i < sorted.size(); ++i) {
+			if (sorted.get(i).rating + z * sorted.get(i).deviation >= low) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// the ratings for names, best first
+	public synchronized List<Rating> sorted(Collection<String> names) {
+		List<Rating> list = new ArrayList<>();
+		for (String name : names) {
+			list.add(get(name));
+		}
+		list.sort((x, y) -> Double.compare(y.rating, x.rating));
+		return list;
+	}
+
+	public synchronized void printLeaderboard(Collection<String> names) {
+		System.out.println("rating\t95%\tgames\tname");
+		for (Rating r : sorted(names)) {
+			System.out.println(r);
+		}
+	}
+
+	// write the ratings to the file given to the constructor
+	public synchronized void save() throws IOException {
+		if (file == null) {
+			return;
+		}
+		File temp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(ratings.size());
+			for (Rating r : ratings.values()) {
+				out.writeUTF(r.name);
+				out.writeFloat((float) r.rating);
+				out.writeFloat((float) r.deviation);
+				out.writeInt(r.games);
+			}
+		}
+		if (!temp.renameTo(file)) {
+			file.delete();
+			if (!temp.renameTo(file)) {
+				throw new IOException("could not replace " + file);
+			}
+		}
+	}
+
+	private void load() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FILE_MAGIC) {
+				throw new IOException(file + " is not a ratings file");
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; ++i) {
+				Rating r = get(in.readUTF());
+				r.rating = in.readFloat();
+				r.deviation = in.readFloat();
+				r.games = in.readInt();
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * Plays random games (rollouts) as fast as possible, spread over all cores.
+ *
+ * Each worker plays on its own PackedGameState with make/unmake and picks
+ * moves straight from the legal move bitmask with its own SplittableRandom,
+ * so a rollout does not allocate anything.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class RolloutEngine {
+
+	final int threads;
+	private final ExecutorService pool;
+	private final SplittableRandom random;
+
+	public RolloutEngine() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public RolloutEngine(int threads) {
+		this.threads = threads;
+		random = new SplittableRandom();
+		pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "rollout");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	// stop the worker threads, the engine cannot be used afterwards
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Play random moves from s until the game is over, then put s back.
+	 *
+	 * @return the final net score, >0 means bottom wins
+	 */
+	static long playout(PackedGameState s, SplittableRandom random) {
+		int startPly = s.getPly();
+		while (!s.isGameOver()) {
+			s.make(randomMove(s.getLegalMoveMask(), random));
+		}
+		long score = s.getFinalNetScore();
+		while (s.getPly() > startPly) {
+			s.unmake();
+		}
+		return score;
+	}
+
+	// a random location from a non-empty legal move bitmask
+	static int randomMove(long legal, SplittableRandom random) {
+		for (int skip = random.nextInt(Long.bitCount(legal)); skip > 0; --skip) {
+			legal &= legal - 1;
+		}
+		return Long.numberOfTrailingZeros(legal);
+	}
+
+	// the total final net score of count random games from g, played on the calling thread
+	public long sum(GameState g, int count) {
+		PackedGameState s = new PackedGameState(g);
+		long total = 0;
+		for (int i = 0; i < count; ++i) {
+			total += playout(s, random);
+		}
+		return total;
+	}
+
+	/**
+	 * Rollouts after every legal move of g, on all threads, until stopTime.
+	 * Every worker takes the moves in turn so they all get about the same
+	 * number of rollouts.
+	 *
+	 * @return sums[loc] is the total final net score after the move at loc
+	 * and counts[loc] the number of rollouts, as {sums, counts}
+	 */
+	public long[][] evaluateMoves(GameState g, long stopTime) {
+		long[] sums = new long[g.board.length];
+		long[] counts = new long[g.board.length];
+		List<Future<long[][]>> running = new ArrayList<>();
+		for (int t = 0; t < threads; ++t) {
+			SplittableRandom workerRandom = random.split();
+			running.add(pool.submit(() -> rollouts(new PackedGameState(g), workerRandom, stopTime)));
+		}
+		for (Future<long[][]> f : running) {
+			try {
+				long[][] result = f.get();
+				for (int i = 0; i < sums.length; ++i) {
+					sums[i] += result[0][i];
+					counts[i] += result[1][i];
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			}
+		}
+		return new long[][] { sums, counts };
+	}
+
+	// the work of one thread for evaluateMoves
+	private static long[][] rollouts(PackedGameState s, SplittableRandom random, long stopTime) {
+		long[] sums = new long[s.getBoardLength()];
+		long[] counts = new long[s.getBoardLength()];
+		long legal = s.getLegalMoveMask();
+		do {
+			for (long left = legal; left != 0; left &= left - 1) {
+				int m = Long.numberOfTrailingZeros(left);
+				s.make(m);
+				sums[m] += playout(s, random);
+				counts[m]++;
+				s.unmake();
+			}
+		} while (System.currentTimeMillis() < stopTime);
+		return new long[][] { sums, counts };
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * What one search did to choose one move, written as a single JSON object
+ * or CSV row so a game's searches can be loaded into other tools.
+ *
+ * Mancala.playGame prints one line per move for players that make a
+ * report, when SearchStats.ENABLED is set.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.Locale;
+
+public class SearchReport {
+
+	public enum Format {
+		JSON, CSV
+	}
+
+	final String player;
+	final long nanos;
+	final long nodes;
+	// nodes of the quiescence search, not included in nodes
+	final long quiescenceNodes;
+	final int completedDepth;
+	final double score;
+	// ms spent on each depth, from depth 1
+	final double[] depthMillis;
+	// the fraction of cutoffs that came at each move index
+	final double[] cutoffRates;
+	final long cutNodes;
+	final long tableProbes;
+	final long tableHits;
+	final String pv;
+
+	/**
+	 * @depthTimes ns from the start of the search until each depth was completed, 0 if it was not
+	 */
+	SearchReport(String player, long nanos, long nodes, long quiescenceNodes, int completedDepth, double score,
+			long[] depthTimes, SearchStats stats, String pv) {
+		this.player = player;
+		this.nanos = nanos;
+		this.nodes = nodes;
+		this.quiescenceNodes = quiescenceNodes;
+		this.completedDepth = completedDepth;
+		this.score = score;
+		this.pv = pv;
+		depthMillis = new double[completedDepth];
+		for (int d = 1; d <= completedDepth; ++d) {
+			depthMillis[d - 1] = (depthTimes[d] - depthTimes[d - 1]) / 1e6;
+		}
+		int last = SearchStats.MAX_MOVE_INDEX;
+		while (last > 0 && stats.cutoffs[last - 1] == 0) {
+			last--;
+		}
+		cutoffRates = new double[last];
+		for (int i = 0; i < last; ++i) {
+			cutoffRates[i] = (double) stats.cutoffs[i] / stats.cutNodes;
+		}
+		cutNodes = stats.cutNodes;
+		tableProbes = stats.tableProbes;
+		tableHits = stats.tableHits;
+	}
+
+	// main and quiescence nodes together
+	public double getNodesPerSecond() {
+		return nanos == 0 ? 0 : (nodes + quiescenceNodes) / (nanos / 1e9);
+	}
+
+	public double getTableHitRate() {
+		return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+	}
+
+	// the column names for toCsv
+	public static String csvHeader() {
+		return "move,player,ms,nodes,q_nodes,nodes_per_s,depth,score,depth_ms,cutoff_rates,cut_nodes,tt_probes,tt_hit_rate,pv";
+	}
+
+	// one CSV row, lists are joined with spaces
+	public String toCsv(int move) {
+		return move + "," + player + "," + format(nanos / 1e6) + "," + nodes + "," + quiescenceNodes + "," + format(getNodesPerSecond()) + ","
+				+ completedDepth + "," + format(score) + "," + join(depthMillis, " ") + "," + join(cutoffRates, " ")
+				+ "," + cutNodes + "," + tableProbes + "," + format(getTableHitRate()) + "," + pv;
+	}
+
+	// one JSON object on one line
+	public String toJson(int move) {
+		return "{\"move\":" + move + ",\"player\":\"" + player.replace("\\", "\\\\").replace("\"", "\\\"")
+				+ "\",\"ms\":" + format(nanos / 1e6) + ",\"nodes\":" + nodes + ",\"qNodes\":" + quiescenceNodes
+				+ ",\"nodesPerSecond\":" + format(getNodesPerSecond()) + ",\"depth\":" + completedDepth + ",\"score\":"
+				+ format(score)
+				+ ",\"depthMs\":[" + join(depthMillis, ",") + "],\"cutoffRates\":[" + join(cutoffRates, ",")
+				+ "],\"cutNodes\":" + cutNodes + ",\"ttProbes\":" + tableProbes + ",\"ttHitRate\":"
+				+ format(getTableHitRate()) + ",\"pv\":[" + pv.replace(' ', ',') + "]}";
+	}
+
+	public String toString(Format format, int move) {
+		return format == Format.CSV ? toCsv(move) : toJson(move);
+	}
+
+	private static String format(double x) {
+		return Double.isFinite(x) ? String.format(Locale.ROOT, "%.4g", x) : "0";
+	}
+
+	private static String join(double[] values, String separator) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < values.length; ++i) {
+			if (i > 0) {
+				sb.append(separator);
+			}
+			sb.append(format(values[i]));
+		}
+		return sb.toString();
+	}
+}
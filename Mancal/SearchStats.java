@@ -0,0 +1,62 @@
+/**
+ * Counters for one thread's share of a search, beyond what MiniMax
+ * reports: where in the move order cutoffs happen and how often the
+ * transposition table finds a position.
+ *
+ * Collection is off unless the program is started with
+ * -Dmancala.stats=true. ENABLED is a constant, so when it is false the
+ * JIT removes every "if (SearchStats.ENABLED)" block and the counters
+ * cost nothing.
+ *
+ * Each thread counts into its own SearchStats from local(), so searches
+ * on several threads never share a counter. A player adds up the ones
+ * its threads used with add().
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.Arrays;
+
+public class SearchStats {
+
+	public static final boolean ENABLED = Boolean.getBoolean("mancala.stats");
+
+	// cutoffs at this move index or later are counted together
+	static final int MAX_MOVE_INDEX = 16;
+
+	private static final ThreadLocal<SearchStats> LOCAL = ThreadLocal.withInitial(SearchStats::new);
+
+	// nodes whose search was cut off, and at which move index the cutoff came
+	long cutNodes;
+	final long[] cutoffs = new long[MAX_MOVE_INDEX];
+	// transposition table probes and the ones that found the position
+	long tableProbes;
+	long tableHits;
+
+	// the counters of the calling thread
+	static SearchStats local() {
+		return LOCAL.get();
+	}
+
+	void reset() {
+		cutNodes = 0;
+		Arrays.fill(cutoffs, 0);
+		tableProbes = 0;
+		tableHits = 0;
+	}
+
+	void add(SearchStats other) {
+		cutNodes += other.cutNodes;
+		for (int i = 0; i < MAX_MOVE_INDEX; ++i) {
+			cutoffs[i] += other.cutoffs[i];
+		}
+		tableProbes += other.tableProbes;
+		tableHits += other.tableHits;
+	}
+
+	// count a cutoff by the move at index in the move order
+	void cutoff(int index) {
+		cutNodes++;
+		cutoffs[Math.min(index, MAX_MOVE_INDEX - 1)]++;
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Checks GameState.makeMove against the original stone by stone sowing
+ * and times the two.
+ *
+ * makeMove sows the full laps of a big pit arithmetically, so its work
+ * grows with the board instead of with the stones moved. reference() is
+ * the loop it replaced, kept here unchanged so the two can be compared on
+ * random games of many board sizes and stone counts.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SowingCheck {
+
+	/**
+	 * The result of playing m on g, sowing one stone at a time as
+	 * GameState.makeMove originally did.
+	 */
+	static GameState reference(GameState g, Move m) {
+		int[] board = g.board;
+		int bottomScore = g.bottomScore;
+		int topScore = g.topScore;
+		int[] next = board.clone();
+		boolean nextBottomTurn = g.isBottomTurn;
+		long totalToMove = next[m.location];
+		next[m.location] = 0;
+		int curLocation = m.location;
+		while (totalToMove > 0) {
+			curLocation = (curLocation + 1) % board.length;
+			if (curLocation == topScore && nextBottomTurn) {
+
+			} else if (curLocation == bottomScore && !nextBottomTurn) {
+
+			} else {
+				next[curLocation]++;
+				totalToMove--;
+			}
+		}
+
+		if (next[curLocation] == 1) {
+			if (nextBottomTurn && curLocation <= bottomScore - 1) {
+				next[curLocation] = 0;
+				next[bottomScore]++;
+				next[bottomScore] += next[board.length - 2 - curLocation];
+				next[board.length - 2 - curLocation] = 0;
+			} else if (!nextBottomTurn && curLocation >= bottomScore + 1 && curLocation <= topScore - 1) {
+				next[curLocation] = 0;
+				next[topScore]++;
+				next[topScore] += next[board.length - 2 - curLocation];
+				next[board.length - 2 - curLocation] = 0;
+			}
+		}
+		if (curLocation == bottomScore) {
+			nextBottomTurn = true;
+		} else if (curLocation == topScore) {
+			nextBottomTurn = false;
+		} else {
+			nextBottomTurn = !g.isBottomTurn;
+		}
+		return new GameState(next, nextBottomTurn, g.totalPieces);
+	}
+
+	// true if a and b are the same position, including the pit totals
+	static boolean same(GameState a, GameState b) {
+		return a.isBottomTurn == b.isBottomTurn && Arrays.equals(a.board, b.board) && a.bottomPits == b.bottomPits
+				&& a.topPits == b.topPits;
+	}
+
+	/**
+	 * Play random games of random geometries with both and stop at the
+	 * first difference.
+	 *
+	 * @return the number of moves compared
+	 */
+	static long check(int games, long seed) {
+		Random random = new Random(seed);
+		int[] legal = new int[64];
+		long moves = 0;
+		for (int game = 0; game < games; ++game) {
+			int boardSize = 2 + random.nextInt(12);
+			int startingPieces = 1 + random.nextInt(random.nextBoolean() ? 6 : 60);
+			GameState g = new GameState(boardSize, startingPieces);
+			while (!g.isGameOver()) {
+				Move m = Move.of(legal[random.nextInt(g.getLegalMoves(legal))]);
+				GameState fast = g.makeMove(m);
+				GameState slow = reference(g, m);
+				if (!same(fast, slow)) {
+					g.printBoard();
+					throw new IllegalStateException("makeMove differs from sowing one stone at a time: "
+							+ boardSize + " x " + startingPieces + ", move " + m);
+				}
+				g = fast;
+				moves++;
+			}
+		}
+		return moves;
+	}
+
+	// positions from random games of the geometry, with the move to make in each
+	private static GameState[] positions(int boardSize, int startingPieces, int count, Move[] moves) {
+		Random random = new Random(boardSize * 1000 + startingPieces);
+		int[] legal = new int[64];
+		GameState[] positions = new GameState[count];
+		GameState g = new GameState(boardSize, startingPieces);
+		for (int i = 0; i < count; ++i) {
+			if (g.isGameOver()) {
+				g = new GameState(boardSize, startingPieces);
+			}
+			positions[i] = g;
+			moves[i] = Move.of(legal[random.nextInt(g.getLegalMoves(legal))]);
+			g = g.makeMove(moves[i]);
+		}
+		return positions;
+	}
+
+	/**
+	 * Run the differential check, then time makeMove and reference() on
+	 * positions from games with more and more stones per pit.
+	 *
+	 * args: [games to check]
+	 */
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		long begin = System.nanoTime();
+		long moves = check(games, 364);
+		System.out.println(moves + " moves of " + games + " random games agree ("
+				+ (System.nanoTime() - begin) / 1000000 + " ms)");
+
+		int count = 1 << 14;
+		System.out.println("stones\treference ns\tmakeMove ns\tspeedup");
+		for (int startingPieces : new int[] { 4, 10, 20, 50, 100 }) {
+			Move[] m = new Move[count];
+			GameState[] positions = positions(7, startingPieces, count, m);
+			double slow = Double.MAX_VALUE;
+			double fast = Double.MAX_VALUE;
+			for (int round = 0; round < 20; ++round) {
+				long sum = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < count; ++i) {
+					sum += reference(positions[i], m[i]).board[6];
+				}
+				long mid = System.nanoTime();
+				for (int i = 0; i < count; ++i) {
+					sum -= positions[i].makeMove(m[i]).board[6];
+				}
+				long end = System.nanoTime();
+				if (sum != 0) {
+					throw new IllegalStateException("results differ");
+				}
+				// the best round, the others include JIT and collector pauses
+				slow = Math.min(slow, (double) (mid - start) / count);
+				fast = Math.min(fast, (double) (end - mid) / count);
+			}
+			System.out.println(startingPieces + "\t" + String.format("%.1f", slow) + "\t\t"
+					+ String.format("%.1f", fast) + "\t\t" + String.format("%.1f", slow / fast));
+		}
+	}
+}
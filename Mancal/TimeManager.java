@@ -0,0 +1,245 @@
+/**
+ * Decides how much of the time before a deadline a player spends on a
+ * move.
+ *
+ * startMove turns the deadline into two stop times. The hard stop is the
+ * deadline less a reserve for the time it takes to return a move, and the
+ * search must abort there. The soft stop is softFraction of the way to the
+ * hard stop, and an iterative search does not start another iteration
+ * after it. Mancala gives a fixed time for every move and time left over
+ * is lost, so softFraction is 1 by default and the soft stop is the hard
+ * stop. A smaller softFraction only pays with a clock that banks unused
+ * time for later moves. After each iteration the search calls
+ * iterationDone, which
+ * - moves the soft stop later, up to the hard stop, when the best move
+ *   changed or the score dropped (a fail low), since the position needs a
+ *   deeper look,
+ * - says stop when the next iteration, predicted from how much longer each
+ *   iteration has taken than the one before, could not finish before the
+ *   hard stop. The result of an unfinished iteration is thrown away, so
+ *   only its table entries would come of that time.
+ * A move with only one legal answer takes no time at all.
+ *
+ * The reserve is not a fixed margin. It is measured: the longest recent
+ * delay between the hard stop and the move being returned, and the longest
+ * recent garbage collection pause, each decaying from move to move.
+ *
+ * One TimeManager belongs to one player. It keeps statistics of the time
+ * it budgeted against the time actually used.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+public class TimeManager {
+
+	// ms always kept back from the deadline, on top of the measured latency
+	long baseReserve = 5;
+
+	// the reserve never takes more than this fraction of the time for a move
+	double maxReserveFraction = 0.25;
+
+	// the soft stop, as a fraction of the time to the hard stop, below 1 only for clocks that bank time
+	double softFraction = 1;
+
+	// how much of the time to the hard stop an unstable iteration adds to the soft stop
+	double extensionFraction = 0.25;
+
+	// a score that falls by more than this from the last iteration is a fail low
+	double failLowMargin = 2;
+
+	// the least an iteration is assumed to grow by over the one before
+	double minGrowth = 2;
+
+	// iterations before this depth are too shallow to judge stability by
+	int stableDepth = 4;
+
+	// how fast measured latency and GC pauses are forgotten each move
+	static final double DECAY = 0.9;
+
+	// the current move, times in ms from System.currentTimeMillis
+	private long start;
+	private long softStop;
+	private long hardStop;
+	private long lastIterationEnd;
+	private long lastIterationMillis;
+	private double lastScore;
+	private int lastMove;
+	private int iterations;
+	private boolean forced;
+
+	// measured delays, in ms
+	private double latency;
+	private double gcPause;
+	private long gcCount;
+	private long gcMillis;
+
+	// statistics over all moves
+	private int moves;
+	private int forcedMoves;
+	private int extensions;
+	private int predictedStops;
+	private int softStops;
+	private int overruns;
+	private long budgetMillis;
+	private long usedMillis;
+	private double usageSum;
+	private double maxUsage;
+
+	public TimeManager() {
+		readGc();
+	}
+
+	/**
+	 * Start timing a move.
+	 *
+	 * @legalMoves the number of legal moves, 1 makes the move forced
+	 * @deadline the system time in ms the move must be returned by
+	 */
+	public void startMove(int legalMoves, long deadline) {
+		start = System.currentTimeMillis();
+		updateGc();
+		long available = Math.max(0, deadline - start);
+		long reserve = Math.min((long) (available * maxReserveFraction),
+				baseReserve + (long) Math.ceil(Math.max(latency, gcPause)));
+		hardStop = deadline - reserve;
+		softStop = start + (long) ((hardStop - start) * softFraction);
+		lastIterationEnd = start;
+		lastIterationMillis = 0;
+		iterations = 0;
+		lastMove = -1;
+		forced = legalMoves <= 1;
+		if (forced) {
+			softStop = start;
+		}
+	}
+
+	// true if there is only one legal move, so there is nothing to think about
+	public boolean isForced() {
+		return forced;
+	}
+
+	// when the search must stop
+	public long getHardStop() {
+		return hardStop;
+	}
+
+	// when the search should stop, if nothing else happens
+	public long getSoftStop() {
+		return softStop;
+	}
+
+	/**
+	 * Report a finished iteration of an iterative search.
+	 *
+	 * @score the value of the root for the player to move
+	 * @bestMove the best location
+	 * @return true if the next iteration should be started
+	 */
+	public boolean iterationDone(int depth, double score, int bestMove) {
+		long now = System.currentTimeMillis();
+		long took = now - lastIterationEnd;
+		iterations++;
+		if (iterations > 1 && depth >= stableDepth
+				&& (bestMove != lastMove || score < lastScore - failLowMargin)) {
+			long extended = Math.min(hardStop, softStop + (long) ((hardStop - start) * extensionFraction));
+			if (extended > softStop) {
+				softStop = extended;
+				extensions++;
+			}
+		}
+		// each iteration takes a few times as long as the last
+		double growth = lastIterationMillis > 0
+				? Math.max(minGrowth, Math.min(8, (double) took / lastIterationMillis)) : minGrowth;
+		lastIterationEnd = now;
+		lastIterationMillis = Math.max(1, took);
+		lastScore = score;
+		lastMove = bestMove;
+		if (now >= softStop) {
+			softStops++;
+			return false;
+		}
+		if (now + growth * lastIterationMillis > hardStop) {
+			predictedStops++;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Finish timing the move, once it is ready to return.
+	 */
+	public void endMove() {
+		long end = System.currentTimeMillis();
+		long budget = hardStop - start;
+		long used = end - start;
+		moves++;
+		if (forced) {
+			forcedMoves++;
+		}
+		budgetMillis += budget;
+		usedMillis += used;
+		double usage = budget > 0 ? (double) used / budget : 0;
+		usageSum += usage;
+		maxUsage = Math.max(maxUsage, usage);
+		// how long returning took after the hard stop, when the search ran into it
+		long late = end - hardStop;
+		if (late > 0) {
+			overruns++;
+		}
+		latency = Math.max(late, latency * DECAY);
+	}
+
+	// the garbage collection time and count so far, over all collectors
+	private void readGc() {
+		long count = 0;
+		long millis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+			millis += Math.max(0, gc.getCollectionTime());
+		}
+		gcCount = count;
+		gcMillis = millis;
+	}
+
+	// take the average pause of the collections since the last move into gcPause
+	private void updateGc() {
+		long count = gcCount;
+		long millis = gcMillis;
+		readGc();
+		double pause = gcCount > count ? (double) (gcMillis - millis) / (gcCount - count) : 0;
+		gcPause = Math.max(pause, gcPause * DECAY);
+	}
+
+	public int getMoves() {
+		return moves;
+	}
+
+	// the average fraction of the budget, up to the hard stop, that moves used
+	public double getAverageUsage() {
+		return moves == 0 ? 0 : usageSum / moves;
+	}
+
+	public double getMaxUsage() {
+		return maxUsage;
+	}
+
+	public int getOverruns() {
+		return overruns;
+	}
+
+	// ms currently kept back for latency and garbage collection, above baseReserve
+	public double getMeasuredReserve() {
+		return Math.max(latency, gcPause);
+	}
+
+	public String toString() {
+		return moves + " moves (" + forcedMoves + " forced), used " + usedMillis + " of " + budgetMillis
+				+ " ms budgeted, average " + String.format("%.0f%%", 100 * getAverageUsage()) + " max "
+				+ String.format("%.0f%%", 100 * maxUsage) + ", " + extensions + " extensions, stopped "
+				+ softStops + " at the soft stop and " + predictedStops + " before an iteration that could not finish, "
+				+ overruns + " past the hard stop, reserve " + String.format("%.1f", getMeasuredReserve()) + " ms";
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * A fixed size transposition table for Mancala searches.
+ *
+ * Positions are keyed by a Zobrist hash of the board plus the side to
+ * move. Each entry is two longs in one primitive array: the key xor'd
+ * with the data, and the data itself. The data packs the value, depth,
+ * bound type, best move and the age of the search that stored it. A torn
+ * entry written by another thread fails the key check and reads as a miss,
+ * so the table can be shared between threads without locks.
+ *
+ * Values are kept as floats. Searches keep their values on the grid of
+ * Evaluator.STEP, which a float holds exactly, so a bound read back is
+ * never on the wrong side of a null window.
+ *
+ * @version Oct 17, 2026
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+
+	// bound types, never 0 so stored data is never 0
+	public static final int EXACT = 1;
+	public static final int LOWER = 2;
+	public static final int UPPER = 3;
+
+	// decides whether a new entry may overwrite the one in its slot
+	public enum Replacement {
+		// always overwrite
+		ALWAYS,
+		// keep deeper entries
+		DEPTH,
+		// keep deeper entries, but only if they came from the current search
+		DEPTH_AND_AGE
+	}
+
+	// key ^ data at 2*i, data at 2*i+1
+	private final long[] entries;
+	private final int mask;
+	private final Replacement policy;
+	private int age;
+
+	// the Zobrist keys for the geometry in use, replaced as a whole so readers never see half of a change
+	private volatile ZobristKeys keys;
+
+	// statistics, only counted when SearchStats.ENABLED. LongAdder spreads the
+	// updates over cells, so threads sharing the table do not fight over one line
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder collisions = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+
+	/**
+	 * @sizeLog2 the table holds 2^sizeLog2 entries
+	 * @policy how to pick between an old and a new entry for the same slot
+	 */
+	public TranspositionTable(int sizeLog2, Replacement policy) {
+		if (sizeLog2 < 1 || sizeLog2 > 28) {
+			throw new IllegalArgumentException("table size out of range: " + sizeLog2);
+		}
+		entries = new long[2 << sizeLog2];
+		mask = (1 << sizeLog2) - 1;
+		this.policy = policy;
+	}
+
+	// a table with 2^20 entries that keeps deeper entries from this search
+	public TranspositionTable() {
+		this(20, Replacement.DEPTH_AND_AGE);
+	}
+
+	// random keys for each (location, count) pair and for the side to move
+	private static final class ZobristKeys {
+		final int boardLength;
+		final long totalPieces;
+		final int stride;
+		final long[] zobrist;
+		final long bottomTurnKey;
+
+		ZobristKeys(int boardLength, long totalPieces) {
+			this.boardLength = boardLength;
+			this.totalPieces = totalPieces;
+			stride = (int) totalPieces + 1;
+			SplittableRandom random = new SplittableRandom(boardLength * 1000003L + totalPieces);
+			zobrist = new long[boardLength * stride];
+			for (int i = 0; i < zobrist.length; ++i) {
+				zobrist[i] = random.nextLong();
+			}
+			bottomTurnKey = random.nextLong();
+		}
+	}
+
+	// the keys for this geometry, made and the table cleared if they change
+	private ZobristKeys keysFor(int boardLength, long totalPieces) {
+		ZobristKeys k = keys;
+		if (k != null && k.boardLength == boardLength && k.totalPieces == totalPieces) {
+			return k;
+		}
+		return changeKeys(boardLength, totalPieces);
+	}
+
+	// threads that share a table all see the same change, and only one makes it
+	private synchronized ZobristKeys changeKeys(int boardLength, long totalPieces) {
+		ZobristKeys k = keys;
+		if (k == null || k.boardLength != boardLength || k.totalPieces != totalPieces) {
+			k = new ZobristKeys(boardLength, totalPieces);
+			clear();
+			keys = k;
+		}
+		return k;
+	}
+
+	// Zobrist hash of a GameState
+	public long hash(GameState g) {
+		ZobristKeys k = keysFor(g.board.length, g.totalPieces);
+		long h = g.isBottomTurn ? k.bottomTurnKey : 0;
+		for (int i = 0; i < g.board.length; ++i) {
+			h ^= k.zobrist[i * k.stride + g.board[i]];
+		}
+		return h;
+	}
+
+	// Zobrist hash of a PackedGameState, equal to the hash of the same GameState
+	public long hash(PackedGameState s) {
+		int length = s.getBoardLength();
+		ZobristKeys k = keysFor(length, s.getTotalPieces());
+		long h = s.getTurn() ? k.bottomTurnKey : 0;
+		for (int i = 0; i < length; ++i) {
+			h ^= k.zobrist[i * k.stride + s.getCount(i)];
+		}
+		return h;
+	}
+
+	// Zobrist hash of the pits of s and the side to move, leaving out the score buckets,
+	// for searches that store values relative to the buckets
+	public long hashPits(PackedGameState s) {
+		int length = s.getBoardLength();
+		ZobristKeys k = keysFor(length, s.getTotalPieces());
+		long h = s.getTurn() ? k.bottomTurnKey : 0;
+		for (int i = 0; i < length; ++i) {
+			if (i != s.bottomScore && i != s.topScore) {
+				h ^= k.zobrist[i * k.stride + s.getCount(i)];
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Look up a position.
+	 *
+	 * @return the packed data for the position, or 0 if it is not in the table.
+	 * Use value, depth, bound and move to unpack it.
+	 */
+	public long probe(long key) {
+		int i = ((int) key & mask) << 1;
+		long data = entries[i + 1];
+		if (data == 0) {
+			if (SearchStats.ENABLED) {
+				misses.increment();
+			}
+			return 0;
+		}
+		if ((entries[i] ^ data) == key) {
+			if (SearchStats.ENABLED) {
+				hits.increment();
+			}
+			return data;
+		}
+		if (SearchStats.ENABLED) {
+			collisions.increment();
+			misses.increment();
+		}
+		return 0;
+	}
+
+	/**
+	 * Store the result of a search.
+	 *
+	 * @bound EXACT, LOWER or UPPER
+	 * @value stored as a float, so it must be one exactly, see Evaluator.STEP
+	 * @bestMove the best location found, or -1 if there is none
+	 */
+	public void store(long key, int depth, int bound, double value, int bestMove) {
+		int i = ((int) key & mask) << 1;
+		long old = entries[i + 1];
+		if (old != 0 && (entries[i] ^ old) != key) {
+			if (policy == Replacement.DEPTH && depth(old) > depth) {
+				return;
+			}
+			if (policy == Replacement.DEPTH_AND_AGE && age(old) == age && depth(old) > depth) {
+				return;
+			}
+		} else if (old != 0 && bestMove < 0) {
+			// keep the move we already know for this position
+			bestMove = move(old);
+		}
+		long data = (Float.floatToRawIntBits((float) value) & 0xFFFFFFFFL)
+				| (long) Math.min(Math.max(depth, 0), 255) << 32
+				| (long) bound << 40
+				| (long) (bestMove + 1 & 0xFF) << 42
+				| (long) age << 50;
+		entries[i] = key ^ data;
+		entries[i + 1] = data;
+		if (SearchStats.ENABLED) {
+			stores.increment();
+		}
+	}
+
+	// the stored value
+	public static double value(long data) {
+		return Float.intBitsToFloat((int) data);
+	}
+
+	// the depth the value was searched to
+	public static int depth(long data) {
+		return (int) (data >>> 32) & 0xFF;
+	}
+
+	// EXACT, LOWER or UPPER
+	public static int bound(long data) {
+		return (int) (data >>> 40) & 0x3;
+	}
+
+	// the best location, or -1 if none was stored
+	public static int move(long data) {
+		return ((int) (data >>> 42) & 0xFF) - 1;
+	}
+
+	static int age(long data) {
+		return (int) (data >>> 50) & 0xFF;
+	}
+
+	// call at the start of each move so DEPTH_AND_AGE can replace stale entries
+	public void newSearch() {
+		age = (age + 1) & 0xFF;
+	}
+
+	public void clear() {
+		Arrays.fill(entries, 0);
+	}
+
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+		collisions.reset();
+		stores.reset();
+	}
+
+	// the counters below stay at 0 unless SearchStats.ENABLED
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	public long getStores() {
+		return stores.sum();
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public String toString() {
+		return "hits " + getHits() + " misses " + getMisses() + " collisions " + getCollisions() + " stores "
+				+ getStores();
+	}
+}
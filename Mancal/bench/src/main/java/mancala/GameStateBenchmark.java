@@ -0,0 +1,100 @@
+package mancala;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The board operations every player calls in its inner loop, on
+ * GameState and on PackedGameState. Each operation runs once on every
+ * recorded position, so the scores are per pass over all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+
+	GameState[] positions;
+	PackedGameState[] packed;
+	// the first legal move of each position
+	Move[] moves;
+	int[] buffer = new int[64];
+
+	@Setup
+	public void setup() {
+		positions = Positions.load();
+		packed = new PackedGameState[positions.length];
+		moves = new Move[positions.length];
+		for (int i = 0; i < positions.length; ++i) {
+			packed[i] = new PackedGameState(positions[i]);
+			moves[i] = positions[i].getLegalMoves().get(0);
+		}
+	}
+
+	@Benchmark
+	public void makeMove(Blackhole bh) {
+		for (int i = 0; i < positions.length; ++i) {
+			bh.consume(positions[i].makeMove(moves[i]));
+		}
+	}
+
+	@Benchmark
+	public void getLegalMoves(Blackhole bh) {
+		for (GameState g : positions) {
+			bh.consume(g.getLegalMoves());
+		}
+	}
+
+	@Benchmark
+	public int getLegalMovesArray() {
+		int count = 0;
+		for (GameState g : positions) {
+			count += g.getLegalMoves(buffer);
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long getLegalMoveMask() {
+		long mask = 0;
+		for (GameState g : positions) {
+			mask ^= g.getLegalMoveMask();
+		}
+		return mask;
+	}
+
+	@Benchmark
+	public int isGameOver() {
+		int over = 0;
+		for (GameState g : positions) {
+			if (g.isGameOver()) {
+				over++;
+			}
+		}
+		return over;
+	}
+
+	@Benchmark
+	public long packedMakeUnmake() {
+		long sum = 0;
+		for (int i = 0; i < packed.length; ++i) {
+			packed[i].make(moves[i].location);
+			sum += packed[i].getCount(moves[i].location);
+			packed[i].unmake();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long packedLegalMoveMask() {
+		long mask = 0;
+		for (PackedGameState s : packed) {
+			mask ^= s.getLegalMoveMask();
+		}
+		return mask;
+	}
+}
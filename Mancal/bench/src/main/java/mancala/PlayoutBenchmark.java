@@ -0,0 +1,52 @@
+package mancala;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Random playouts to the end of the game, as used by NearRandomPlayer
+ * and MctsPlayer. Scores are playouts per second, per thread for the
+ * single threaded run and in total for the run on every core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayoutBenchmark {
+
+	PackedGameState start;
+	SplittableRandom random;
+
+	@Setup
+	public void setup() {
+		start = new PackedGameState(new GameState(7, 4));
+		random = new SplittableRandom(364);
+	}
+
+	@Benchmark
+	public long playout() {
+		return RolloutEngine.playout(start, random);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long playoutAllThreads() {
+		return RolloutEngine.playout(start, random);
+	}
+
+	// the GameState playout NearRandomPlayer used before RolloutEngine, for comparison
+	@Benchmark
+	public long gameStatePlayout() {
+		GameState g = start.toGameState();
+		int[] moves = new int[g.board.length];
+		while (!g.isGameOver()) {
+			int count = g.getLegalMoves(moves);
+			g = g.makeMove(Move.of(moves[random.nextInt(count)]));
+		}
+		return g.getFinalNetScore();
+	}
+}
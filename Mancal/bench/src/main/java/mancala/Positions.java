@@ -0,0 +1,25 @@
+package mancala;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The recorded positions in positions.txt, shared by the benchmarks.
+ * The file is read by the engine's own IterativeDeepeningPlayer.readPositions,
+ * so the benchmarks and the engine's driver comparison agree on the format.
+ */
+final class Positions {
+
+	private Positions() {
+	}
+
+	static GameState[] load() {
+		try {
+			return IterativeDeepeningPlayer.readPositions(new InputStreamReader(
+					Positions.class.getResourceAsStream("/positions.txt"), StandardCharsets.UTF_8))
+					.toArray(new GameState[0]);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
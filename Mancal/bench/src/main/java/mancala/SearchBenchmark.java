@@ -0,0 +1,42 @@
+package mancala;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A fixed depth iterative deepening search of each recorded position.
+ * The table is cleared before every search so each one starts cold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+	@Param({ "8", "12" })
+	int depth;
+
+	GameState[] positions;
+	IterativeDeepeningPlayer player;
+
+	@Setup
+	public void setup() {
+		positions = Positions.load();
+		player = new IterativeDeepeningPlayer();
+		player.maxDepth = depth;
+	}
+
+	@Benchmark
+	public int search() {
+		int moves = 0;
+		for (GameState g : positions) {
+			player.getTranspositionTable().clear();
+			player.startSearch(g, Long.MAX_VALUE / 2);
+			moves += player.deepen(1, 1);
+		}
+		return moves;
+	}
+}
@@ -0,0 +1,60 @@
+package mancala;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * GameState.makeMove against the stone by stone sowing it replaced, on
+ * positions from random games of the standard board with more and more
+ * stones per pit. Scores are per pass over all the positions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SowingBenchmark {
+
+	static final int POSITIONS = 1024;
+
+	@Param({ "4", "10", "20", "50" })
+	int startingPieces;
+
+	GameState[] positions;
+	Move[] moves;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(startingPieces);
+		int[] legal = new int[64];
+		positions = new GameState[POSITIONS];
+		moves = new Move[POSITIONS];
+		GameState g = new GameState(7, startingPieces);
+		for (int i = 0; i < POSITIONS; ++i) {
+			if (g.isGameOver()) {
+				g = new GameState(7, startingPieces);
+			}
+			positions[i] = g;
+			moves[i] = Move.of(legal[random.nextInt(g.getLegalMoves(legal))]);
+			g = g.makeMove(moves[i]);
+		}
+	}
+
+	@Benchmark
+	public void makeMove(Blackhole bh) {
+		for (int i = 0; i < POSITIONS; ++i) {
+			bh.consume(positions[i].makeMove(moves[i]));
+		}
+	}
+
+	@Benchmark
+	public void reference(Blackhole bh) {
+		for (int i = 0; i < POSITIONS; ++i) {
+			bh.consume(SowingCheck.reference(positions[i], moves[i]));
+		}
+	}
+}